@@ -29,6 +29,7 @@ import com.ecommerce.nashtech.modules.account.service.AccountService;
 import com.ecommerce.nashtech.security.jwt.JwtUtils;
 import com.ecommerce.nashtech.shared.config.ProfileEnvironment;
 import com.ecommerce.nashtech.shared.enums.UserFinder;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 import com.ecommerce.nashtech.shared.types.Option;
@@ -56,7 +57,7 @@ public class AccountController implements IAccountController {
 
     @Override
     @PostMapping("/login")
-    public Mono<ResponseEntity<String>> login(
+    public Mono<ResponseEntity<BaseResponse>> login(
             ServerWebExchange exchange,
             @Valid @RequestBody Mono<SignInDto> dtoMono) {
 
@@ -65,13 +66,13 @@ public class AccountController implements IAccountController {
         return dtoMono
                 .flatMap(dto -> authenticate(dto))
                 .flatMap(auth -> generateLoginResponse(exchange, auth, instance))
-                .onErrorResume(WebExchangeBindException.class, ex -> badRequestResponse())
+                .onErrorResume(WebExchangeBindException.class, ex -> badRequestResponse(instance))
                 .onErrorResume(AuthenticationException.class, ex -> unauthorizedResponse(instance));
     }
 
     @Override
     @GetMapping("/refresh")
-    public Mono<ResponseEntity<String>> renewAccessToken(ServerWebExchange exchange) {
+    public Mono<ResponseEntity<BaseResponse>> renewAccessToken(ServerWebExchange exchange) {
         String instance = router.getURI("refresh");
 
         MultiValueMap<String, HttpCookie> cookies = exchange.getRequest().getCookies();
@@ -101,7 +102,7 @@ public class AccountController implements IAccountController {
 
     @Override
     @PostMapping("/logout")
-    public Mono<ResponseEntity<String>> logout(ServerWebExchange exchange) {
+    public Mono<ResponseEntity<BaseResponse>> logout(ServerWebExchange exchange) {
         String instance = router.getURI("logout");
 
         ResponseCookie expiredCookie = ResponseCookie.from("refreshToken", "")
@@ -122,7 +123,7 @@ public class AccountController implements IAccountController {
 
     @Override
     @GetMapping("/exists/username/{username}")
-    public Mono<ResponseEntity<String>> usernameExists(ServerWebExchange exchange, @PathVariable String username) {
+    public Mono<ResponseEntity<BaseResponse>> usernameExists(ServerWebExchange exchange, @PathVariable String username) {
         String instance = router.getURI("exists", "username", username);
         var finder = new UserFinder.ByUsername(username);
         return accountService
@@ -137,7 +138,7 @@ public class AccountController implements IAccountController {
 
     @Override
     @GetMapping("/exists/email/{email}")
-    public Mono<ResponseEntity<String>> emailExists(ServerWebExchange exchange, @PathVariable String email) {
+    public Mono<ResponseEntity<BaseResponse>> emailExists(ServerWebExchange exchange, @PathVariable String email) {
         String instance = router.getURI("exists", "email", email);
         var finder = new UserFinder.ByEmail(email);
         return accountService
@@ -162,7 +163,7 @@ public class AccountController implements IAccountController {
                 .doOnNext(auth -> SecurityContextHolder.getContext().setAuthentication(auth));
     }
 
-    private Mono<ResponseEntity<String>> generateLoginResponse(ServerWebExchange exchange, Authentication auth,
+    private Mono<ResponseEntity<BaseResponse>> generateLoginResponse(ServerWebExchange exchange, Authentication auth,
             String instance) {
         String accessJwt = accessTokenProvider.generateToken(auth);
         String refreshJwt = refreshTokenProvider.generateToken(auth);
@@ -198,13 +199,12 @@ public class AccountController implements IAccountController {
                 .unwrapOr("unknown");
     }
 
-    private Mono<ResponseEntity<String>> badRequestResponse() {
-        return Mono.just(ResponseEntity
-                .badRequest()
-                .body("Invalid input data"));
+    private Mono<ResponseEntity<BaseResponse>> badRequestResponse(String instance) {
+        return ErrorResponse.build(AccountError.InvalidInputError.build(), instance)
+                .asMonoResponse();
     }
 
-    private Mono<ResponseEntity<String>> unauthorizedResponse(String instance) {
+    private Mono<ResponseEntity<BaseResponse>> unauthorizedResponse(String instance) {
         return ErrorResponse.build(AccountError.WrongCredentialsError.build(), instance)
                 .asMonoResponse(HttpStatus.UNAUTHORIZED);
     }
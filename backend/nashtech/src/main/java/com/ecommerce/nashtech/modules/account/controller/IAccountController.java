@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.server.ServerWebExchange;
 
 import com.ecommerce.nashtech.modules.account.dto.SignInDto;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 
@@ -29,7 +30,7 @@ public interface IAccountController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> login(
+    Mono<ResponseEntity<BaseResponse>> login(
             ServerWebExchange exchange,
             @Valid @RequestBody Mono<SignInDto> dtoMono);
 
@@ -41,7 +42,7 @@ public interface IAccountController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> renewAccessToken(ServerWebExchange exchange);
+    Mono<ResponseEntity<BaseResponse>> renewAccessToken(ServerWebExchange exchange);
 
     @Operation(summary = "Logout from account", description = "Logout from an account and invalidate the current refresh token")
     @ApiResponses(value = {
@@ -51,7 +52,7 @@ public interface IAccountController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> logout(ServerWebExchange exchange);
+    Mono<ResponseEntity<BaseResponse>> logout(ServerWebExchange exchange);
 
     @Operation(summary = "Check if username exists", description = "Check if a username already exists in the system")
     @ApiResponses(value = {
@@ -61,7 +62,7 @@ public interface IAccountController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> usernameExists(ServerWebExchange exchange, @PathVariable String username);
+    Mono<ResponseEntity<BaseResponse>> usernameExists(ServerWebExchange exchange, @PathVariable String username);
 
     @Operation(summary = "Check if email exists", description = "Check if an email already exists in the system")
     @ApiResponses(value = {
@@ -71,5 +72,5 @@ public interface IAccountController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> emailExists(ServerWebExchange exchange, @PathVariable String email);
+    Mono<ResponseEntity<BaseResponse>> emailExists(ServerWebExchange exchange, @PathVariable String email);
 }
@@ -13,7 +13,8 @@ public sealed abstract class AccountError extends BaseError permits
         AccountError.NotValidPassword,
         AccountError.ExpiredTokenError,
         AccountError.InvalidTokenError,
-        AccountError.UnauthorizedError {
+        AccountError.UnauthorizedError,
+        AccountError.InvalidInputError {
     protected AccountError(String message, String code) {
         super(message, code);
     }
@@ -124,4 +125,14 @@ public sealed abstract class AccountError extends BaseError permits
         }
     }
 
+    public static final class InvalidInputError extends AccountError {
+        private InvalidInputError() {
+            super("Invalid input data", "ACCOUNT_110");
+        }
+
+        public static InvalidInputError build() {
+            return new InvalidInputError();
+        }
+    }
+
 }
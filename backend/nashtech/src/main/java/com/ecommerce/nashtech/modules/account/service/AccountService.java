@@ -17,6 +17,7 @@ import com.ecommerce.nashtech.modules.account.internal.repository.AccountReposit
 import com.ecommerce.nashtech.modules.account.model.Account;
 import com.ecommerce.nashtech.shared.enums.UserFinder;
 import com.ecommerce.nashtech.shared.types.Option;
+import com.ecommerce.nashtech.shared.util.SingleFlight;
 
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -34,6 +35,7 @@ public class AccountService implements IAccountService {
     TransactionalOperator txOperator;
     PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
     R2dbcEntityTemplate template;
+    SingleFlight<UserFinder, FullAccountDto> fullAccountFlights = new SingleFlight<>();
 
     @Override
     public Mono<Account> find(UserFinder find) {
@@ -91,8 +93,9 @@ public class AccountService implements IAccountService {
 
     @Override
     public Mono<FullAccountDto> findFullAccount(UserFinder finder) {
-        return find(finder).flatMap(account -> roleService.findByAccount(finder).collectList()
-                .map(roles -> FullAccountDto.fromAccount(account, roles)));
+        return fullAccountFlights.execute(finder, () -> find(finder)
+                .flatMap(account -> roleService.findByAccount(finder).collectList()
+                        .map(roles -> FullAccountDto.fromAccount(account, roles))));
     }
 
     @Override
@@ -5,7 +5,10 @@ import com.ecommerce.nashtech.modules.brand.error.BrandError;
 import com.ecommerce.nashtech.modules.brand.dto.CreateBrandDto;
 import com.ecommerce.nashtech.modules.brand.service.IBrandService;
 import com.ecommerce.nashtech.modules.product.error.ProductError;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
+import com.ecommerce.nashtech.shared.response.ConditionalResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
+import com.ecommerce.nashtech.shared.response.StreamingResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 import com.ecommerce.nashtech.shared.util.Router;
 
@@ -38,34 +41,45 @@ public class BrandController implements IBrandController {
 
     @Override
     @GetMapping
-    public Mono<ResponseEntity<String>> getAll(@RequestParam(defaultValue = "0") int page,
+    public Mono<ResponseEntity<BaseResponse>> getAll(ServerWebExchange exchange,
+            @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         var instance = router.getURI("");
         Pageable pageable = PageRequest.of(page, size);
-        return brandService.findAll(pageable)
+        var version = brandService.findLatestVersion()
+                .zipWith(brandService.count(),
+                        (updatedAt, total) -> ConditionalResponse.of(updatedAt, page, size, total));
+        return ConditionalResponse.respond(exchange, version, () -> brandService.findAll(pageable)
                 .collectList()
                 .zipWith(brandService.count())
                 .map(tuple -> new PageImpl<>(tuple.getT1(), pageable, tuple.getT2()))
                 .map(brandPage -> SuccessfulResponse.WithPageableData.of(brandPage, instance)
-                        .asResponse());
+                        .asResponse()));
+    }
+
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BaseResponse> streamAll(Pageable pageable) {
+        var instance = router.getURI("");
+        return StreamingResponse.of(brandService.findAll(pageable), brandService.count(), pageable, instance);
     }
 
     @Override
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<String>> getById(@PathVariable Long id) {
+    public Mono<ResponseEntity<BaseResponse>> getById(ServerWebExchange exchange, @PathVariable Long id) {
         var instance = router.getURI(id);
-        return brandService.findDtoById(id)
+        var version = brandService.findVersion(id)
+                .map(updatedAt -> ConditionalResponse.of(updatedAt, id));
+        return ConditionalResponse.respond(exchange, version, () -> brandService.findDtoById(id)
                 .map(brand -> SuccessfulResponse.WithData.builder().item(brand).instance(instance)
-                        .build().toJSON())
-                .map(ResponseEntity::ok)
+                        .build().asResponse())
                 .onErrorResume(BrandError.class,
-                        e -> ErrorResponse.build(e, instance).asMonoResponse());
+                        e -> ErrorResponse.build(e, instance).asMonoResponse()));
 
     }
 
     @Override
     @PostMapping
-    public Mono<ResponseEntity<String>> create(@RequestBody Mono<CreateBrandDto> dto) {
+    public Mono<ResponseEntity<BaseResponse>> create(@RequestBody Mono<CreateBrandDto> dto) {
         var instance = router.getURI("");
 
         return dto.flatMap(brandService::create)
@@ -77,7 +91,7 @@ public class BrandController implements IBrandController {
 
     @Override
     @PatchMapping("/{id}")
-    public Mono<ResponseEntity<String>> update(@PathVariable Long id, @RequestBody UpdateBrandDto dto) {
+    public Mono<ResponseEntity<BaseResponse>> update(@PathVariable Long id, @RequestBody UpdateBrandDto dto) {
         var instance = router.getURI(id);
         return brandService.update(id, dto)
                 .map(brand -> SuccessfulResponse.WithData.builder().item(brand).instance(instance)
@@ -88,17 +102,18 @@ public class BrandController implements IBrandController {
 
     @Override
     @DeleteMapping("/{id}")
-    public Mono<ResponseEntity<String>> delete(@PathVariable Long id) {
+    public Mono<ResponseEntity<BaseResponse>> delete(@PathVariable Long id) {
         var instance = router.getURI(id);
         return brandService.delete(id)
-                .then(Mono.just(ResponseEntity.ok().body("Deleted successfully")))
+                .then(SuccessfulResponse.WithMessage.builder().message("Deleted successfully").instance(instance)
+                        .build().asMonoResponse())
                 .onErrorResume(BrandError.class,
                         e -> ErrorResponse.build(e, instance).asMonoResponse());
     }
 
     @Override
     @PostMapping(value = "{brandId}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public Mono<ResponseEntity<String>> uploadBrandImage(
+    public Mono<ResponseEntity<BaseResponse>> uploadBrandImage(
             ServerWebExchange exchange,
             @RequestPart("file") Mono<FilePart> filePart,
             @PathVariable Long brandId,
@@ -10,6 +10,7 @@ import org.springframework.web.server.ServerWebExchange;
 import com.ecommerce.nashtech.modules.brand.dto.BrandDto;
 import com.ecommerce.nashtech.modules.brand.dto.CreateBrandDto;
 import com.ecommerce.nashtech.modules.brand.dto.UpdateBrandDto;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 
@@ -29,20 +30,24 @@ public interface IBrandController {
     @Operation(summary = "Get all brands", description = "Retrieve all brands with pagination")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Brands retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessfulResponse.WithData.class))),
+            @ApiResponse(responseCode = "304", description = "Brands not modified since the given ETag or date"),
             @ApiResponse(responseCode = "400", description = "Invalid pagination parameters", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> getAll(
+    Mono<ResponseEntity<BaseResponse>> getAll(
+            ServerWebExchange exchange,
             @Parameter(description = "Page number (zero-based)", schema = @Schema(type = "integer", defaultValue = "0")) @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page", schema = @Schema(type = "integer", defaultValue = "10")) @RequestParam(defaultValue = "10") int size);
 
     @Operation(summary = "Get brand by ID", description = "Retrieve a brand by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Brand retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessfulResponse.WithData.class))),
+            @ApiResponse(responseCode = "304", description = "Brand not modified since the given ETag or date"),
             @ApiResponse(responseCode = "404", description = "Brand not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> getById(
+    Mono<ResponseEntity<BaseResponse>> getById(
+            ServerWebExchange exchange,
             @Parameter(description = "ID of the brand to retrieve", required = true, schema = @Schema(type = "integer", format = "int64")) @PathVariable Long id);
 
     @Operation(summary = "Create a new brand", description = "Create a new brand")
@@ -53,7 +58,7 @@ public interface IBrandController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> create(
+    Mono<ResponseEntity<BaseResponse>> create(
             @RequestBody Mono<CreateBrandDto> dto);
 
     @Operation(summary = "Update brand", description = "Update an existing brand")
@@ -65,7 +70,7 @@ public interface IBrandController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> update(
+    Mono<ResponseEntity<BaseResponse>> update(
             @Parameter(description = "ID of the brand to update", required = true, schema = @Schema(type = "integer", format = "int64")) @PathVariable Long id,
             @RequestBody UpdateBrandDto dto);
 
@@ -76,7 +81,7 @@ public interface IBrandController {
             @ApiResponse(responseCode = "404", description = "Brand not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> delete(
+    Mono<ResponseEntity<BaseResponse>> delete(
             @Parameter(description = "ID of the brand to delete", required = true, schema = @Schema(type = "integer", format = "int64")) @PathVariable Long id);
 
     @Operation(summary = "Upload brand image", description = "Upload an image for a brand")
@@ -88,7 +93,7 @@ public interface IBrandController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> uploadBrandImage(
+    Mono<ResponseEntity<BaseResponse>> uploadBrandImage(
             ServerWebExchange exchange,
             @RequestPart("file") Mono<FilePart> filePart,
             @PathVariable Long brandId,
@@ -0,0 +1,9 @@
+package com.ecommerce.nashtech.modules.brand.event;
+
+/**
+ * Published after a brand is renamed or deleted.
+ *
+ * @param brandId The id of the brand.
+ */
+public record BrandChangedEvent(Long brandId) {
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.nashtech.modules.brand.internal.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 
@@ -21,4 +22,10 @@ public interface BrandRepository extends R2dbcRepository<Brand, Long> {
     Mono<Boolean> existsById(Long id);
 
     Mono<Boolean> existsByName(String name);
+
+    @Query("SELECT updated_at FROM brands WHERE id = :id")
+    Mono<Long> findVersionById(Long id);
+
+    @Query("SELECT COALESCE(MAX(updated_at), 0) FROM brands")
+    Mono<Long> findLatestVersion();
 }
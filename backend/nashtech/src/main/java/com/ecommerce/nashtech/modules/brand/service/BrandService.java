@@ -5,6 +5,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import lombok.AccessLevel;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.http.codec.multipart.FilePart;
@@ -18,6 +19,7 @@ import com.ecommerce.nashtech.modules.brand.dto.BrandDto;
 import com.ecommerce.nashtech.modules.brand.dto.CreateBrandDto;
 import com.ecommerce.nashtech.modules.brand.dto.UpdateBrandDto;
 import com.ecommerce.nashtech.modules.brand.error.BrandError;
+import com.ecommerce.nashtech.modules.brand.event.BrandChangedEvent;
 import com.ecommerce.nashtech.modules.brand.internal.repository.BrandRepository;
 import com.ecommerce.nashtech.modules.brand.model.Brand;
 import com.ecommerce.nashtech.modules.image.service.ImageService;
@@ -35,6 +37,7 @@ public class BrandService implements IBrandService {
     R2dbcEntityTemplate template;
     TransactionalOperator txOperator;
     ImageService imageService;
+    ApplicationEventPublisher events;
 
     private Mono<Brand> findById(Long id) {
         return brandRepo.findById(id)
@@ -46,6 +49,18 @@ public class BrandService implements IBrandService {
         return brandRepo.count();
     }
 
+    @Override
+    public Mono<Long> findVersion(Long id) {
+        return brandRepo.findVersionById(id)
+                .zipWith(productService.countVersionByBrand(id), Math::max);
+    }
+
+    @Override
+    public Mono<Long> findLatestVersion() {
+        return brandRepo.findLatestVersion()
+                .zipWith(productService.countVersionOfBrands(), Math::max);
+    }
+
     @Override
     public Mono<BrandDto> findDtoById(Long id) {
         var productCount = productService.countByBrand(id);
@@ -88,14 +103,18 @@ public class BrandService implements IBrandService {
 
     @Override
     public Mono<Brand> update(Long id, UpdateBrandDto dto) {
-        return findById(id).map(brand -> Brand.builder().name(dto.name()).id(brand.getId()).build());
+        return findById(id).map(brand -> Brand.builder().name(dto.name()).id(brand.getId()).build())
+                .flatMap(brandRepo::save)
+                .as(txOperator::transactional)
+                .doOnNext(brand -> events.publishEvent(new BrandChangedEvent(brand.getId())));
     }
 
     @Override
     public Mono<Void> delete(Long id) {
         return findById(id)
                 .flatMap(brandRepo::delete)
-                .as(txOperator::transactional);
+                .as(txOperator::transactional)
+                .doOnSuccess(ignored -> events.publishEvent(new BrandChangedEvent(id)));
     }
 
     @Override
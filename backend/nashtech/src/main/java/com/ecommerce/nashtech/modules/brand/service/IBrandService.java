@@ -19,6 +19,10 @@ public interface IBrandService {
 
     Mono<Long> count();
 
+    Mono<Long> findVersion(Long id);
+
+    Mono<Long> findLatestVersion();
+
     Mono<Brand> create(CreateBrandDto dto);
 
     Mono<Brand> update(Long id, UpdateBrandDto dto);
@@ -3,19 +3,25 @@ package com.ecommerce.nashtech.modules.category.controller;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 
 import com.ecommerce.nashtech.modules.category.service.ICategoryService;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
+import com.ecommerce.nashtech.shared.response.ConditionalResponse;
+import com.ecommerce.nashtech.shared.response.StreamingResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 import com.ecommerce.nashtech.shared.util.Router;
 
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -29,16 +35,27 @@ public class CategoryController implements ICategoryController {
 
     @Override
     @GetMapping
-    public Mono<ResponseEntity<String>> getAll(@RequestParam(defaultValue = "0") int page,
+    public Mono<ResponseEntity<BaseResponse>> getAll(ServerWebExchange exchange,
+            @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         var instance = router.getURI("");
         Pageable pageable = PageRequest.of(page, size);
-        return categoryService.findAll(pageable)
+        var version = categoryService.findLatestVersion()
+                .zipWith(categoryService.count(),
+                        (updatedAt, total) -> ConditionalResponse.of(updatedAt, page, size, total));
+        return ConditionalResponse.respond(exchange, version, () -> categoryService.findAll(pageable)
                 .collectList()
                 .zipWith(categoryService.count())
                 .map(tuple -> new PageImpl<>(tuple.getT1(), pageable, tuple.getT2()))
                 .map(categoryPage -> SuccessfulResponse.WithPageableData.of(categoryPage, instance)
-                        .asResponse());
+                        .asResponse()));
+    }
+
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BaseResponse> streamAll(Pageable pageable) {
+        var instance = router.getURI("");
+        return StreamingResponse.of(categoryService.findAll(pageable), categoryService.count(), pageable,
+                instance);
     }
 
 }
@@ -2,7 +2,9 @@ package com.ecommerce.nashtech.modules.category.controller;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ServerWebExchange;
 
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 
@@ -20,9 +22,11 @@ public interface ICategoryController {
     @Operation(summary = "Get all categories", description = "Retrieve all categories with pagination")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Brands retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessfulResponse.WithData.class))),
+            @ApiResponse(responseCode = "304", description = "Categories not modified since the given ETag or date"),
             @ApiResponse(responseCode = "400", description = "Invalid pagination parameters", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> getAll(@RequestParam(defaultValue = "0") int page,
+    Mono<ResponseEntity<BaseResponse>> getAll(ServerWebExchange exchange,
+            @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size);
 }
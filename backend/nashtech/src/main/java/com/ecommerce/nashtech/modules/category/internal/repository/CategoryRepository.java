@@ -1,6 +1,7 @@
 package com.ecommerce.nashtech.modules.category.internal.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 
@@ -21,4 +22,7 @@ public interface CategoryRepository extends R2dbcRepository<Category, Long> {
     Mono<Boolean> existsByName(String name);
 
     Flux<Category> findAllBy(Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(updated_at), 0) FROM categories")
+    Mono<Long> findLatestVersion();
 }
@@ -43,4 +43,10 @@ public class CategoryService implements ICategoryService {
     public Mono<Long> count() {
         return categoryRepo.count();
     }
+
+    @Override
+    public Mono<Long> findLatestVersion() {
+        return categoryRepo.findLatestVersion()
+                .zipWith(productService.countVersionOfCategories(), Math::max);
+    }
 }
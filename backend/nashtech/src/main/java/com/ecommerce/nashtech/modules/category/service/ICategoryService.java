@@ -11,4 +11,6 @@ public interface ICategoryService {
     Flux<CategoryDto> findAll(Pageable pageable);
 
     Mono<Long> count();
+
+    Mono<Long> findLatestVersion();
 }
@@ -2,26 +2,39 @@ package com.ecommerce.nashtech.modules.image.controller;
 
 import java.util.UUID;
 
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ServerWebExchange;
 
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Tag(name = "Image Management", description = "Operations related to user management")
 public interface IImageController {
-    @Operation(summary = "Get image by UUID", description = "Get image by UUID")
-    Flux<DataBuffer> getImage(@PathVariable("uuid") UUID uuid, ServerWebExchange exchange);
+    @Operation(summary = "Get image by UUID", description = "Get image by UUID. With w or fmt, a resized or re-encoded variant is served instead; w is rounded up to a supported width and never exceeds the original.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Image content, cacheable as immutable"),
+            @ApiResponse(responseCode = "206", description = "The requested byte range"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid width or unsupported format"),
+            @ApiResponse(responseCode = "404", description = "Image not found"),
+            @ApiResponse(responseCode = "416", description = "Range not satisfiable")
+    })
+    Mono<Void> getImage(
+            @PathVariable("uuid") UUID uuid,
+            @Parameter(description = "Target width in pixels") @RequestParam(value = "w", required = false) Integer width,
+            @Parameter(description = "Target format: jpeg or png") @RequestParam(value = "fmt", required = false) String format,
+            ServerWebExchange exchange);
 
     @Operation(summary = "Get image metadata by UUID", description = "Get image metadata by UUID")
     @ApiResponses(value = {
@@ -30,7 +43,7 @@ public interface IImageController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> getMetadata(@PathVariable("uuid") UUID uuid);
+    Mono<ResponseEntity<BaseResponse>> getMetadata(@PathVariable("uuid") UUID uuid);
 
     @Operation(summary = "Get image by object key", description = "Get image by object key")
     @ApiResponses(value = {
@@ -39,5 +52,33 @@ public interface IImageController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Flux<DataBuffer> getImage(@PathVariable("objectKey") String objectKey, ServerWebExchange exchange);
+    Mono<Void> getImage(@PathVariable("objectKey") String objectKey, ServerWebExchange exchange);
+
+    @Operation(summary = "Start a direct upload", description = "Reserve an image UUID and get a short-lived signed policy to POST the file straight to storage as a multipart form: the returned fields, a Content-Type field starting with image/, and the file last. Storage rejects files over the size limit. Complete the upload afterwards.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload policy issued", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessfulResponse.WithData.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    Mono<ResponseEntity<BaseResponse>> createUpload();
+
+    @Operation(summary = "Complete a direct upload", description = "Record the metadata of an image posted with a signed policy. Its format and dimensions are filled in shortly after. Completing the same upload again returns the saved image. Uploads not completed within an hour of their policy expiring are deleted.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Image recorded", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessfulResponse.WithData.class))),
+            @ApiResponse(responseCode = "404", description = "The upload was never issued, has expired, or nothing was uploaded under this UUID", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "413", description = "The uploaded file is too large and was deleted", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    Mono<ResponseEntity<BaseResponse>> completeUpload(
+            @PathVariable("uuid") UUID uuid,
+            @Parameter(description = "Alternative text") @RequestParam(value = "altText", required = false) String altText);
+
+    @Operation(summary = "Get a direct download URL", description = "Get a short-lived presigned URL to GET an image, or a variant of it, straight from storage.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Download URL issued", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessfulResponse.WithData.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid width or unsupported format", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Image not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    Mono<ResponseEntity<BaseResponse>> getDownloadUrl(
+            @PathVariable("uuid") UUID uuid,
+            @Parameter(description = "Target width in pixels") @RequestParam(value = "w", required = false) Integer width,
+            @Parameter(description = "Target format: jpeg or png") @RequestParam(value = "fmt", required = false) String format);
 }
@@ -2,17 +2,20 @@ package com.ecommerce.nashtech.modules.image.controller;
 
 import java.util.UUID;
 
-import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 
 import com.ecommerce.nashtech.modules.image.error.ImageError;
 import com.ecommerce.nashtech.modules.image.service.ImageService;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 import com.ecommerce.nashtech.shared.util.Router;
@@ -20,7 +23,6 @@ import com.ecommerce.nashtech.shared.util.Router;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RequiredArgsConstructor
@@ -33,20 +35,26 @@ public class ImageController implements IImageController {
     Router router = new Router("/api/v1/images");
 
     @Override
-    @GetMapping(value = "/uuid/{uuid}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Flux<DataBuffer> getImage(@PathVariable("uuid") UUID uuid, ServerWebExchange exchange) {
-        return imageService.getImage(uuid.toString());
+    @GetMapping("/uuid/{uuid}")
+    public Mono<Void> getImage(
+            @PathVariable("uuid") UUID uuid,
+            @RequestParam(value = "w", required = false) Integer width,
+            @RequestParam(value = "fmt", required = false) String format,
+            ServerWebExchange exchange) {
+        return imageService.serve(exchange, uuid, width, format)
+                .onErrorResume(ImageError.ImageNotFoundError.class, e -> notFound(exchange));
     }
 
     @Override
-    @GetMapping(value = "/key/{objectKey}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Flux<DataBuffer> getImage(@PathVariable("objectKey") String objectKey, ServerWebExchange exchange) {
-        return imageService.getImage(objectKey);
+    @GetMapping("/key/{objectKey}")
+    public Mono<Void> getImage(@PathVariable("objectKey") String objectKey, ServerWebExchange exchange) {
+        return imageService.serve(exchange, objectKey)
+                .onErrorResume(ImageError.ImageNotFoundError.class, e -> notFound(exchange));
     }
 
     @Override
     @GetMapping(value = "/uuid/{uuid}/metadata", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<String>> getMetadata(@PathVariable("uuid") UUID uuid) {
+    public Mono<ResponseEntity<BaseResponse>> getMetadata(@PathVariable("uuid") UUID uuid) {
         var instance = router.getURI(uuid, "metadata");
         return imageService.getImageMetadata(uuid)
                 .map(metatadata -> SuccessfulResponse.WithData.builder().item(metatadata).instance(instance).build()
@@ -54,4 +62,49 @@ public class ImageController implements IImageController {
                 .onErrorResume(ImageError.class, e -> ErrorResponse.build(e, instance).asMonoResponse());
     }
 
+    @Override
+    @PostMapping(value = "/uploads", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BaseResponse>> createUpload() {
+        var instance = router.getURI("uploads");
+        return imageService.createUpload()
+                .map(upload -> SuccessfulResponse.WithData.builder().item(upload).instance(instance).build()
+                        .asResponse())
+                .onErrorResume(ImageError.class, e -> ErrorResponse.build(e, instance).asMonoResponse());
+    }
+
+    @Override
+    @PostMapping(value = "/uploads/{uuid}/complete", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BaseResponse>> completeUpload(
+            @PathVariable("uuid") UUID uuid,
+            @RequestParam(value = "altText", required = false) String altText) {
+        var instance = router.getURI("uploads", uuid, "complete");
+        return imageService.completeUpload(uuid, altText)
+                .map(image -> SuccessfulResponse.WithData.builder().item(image).instance(instance).build()
+                        .asResponse())
+                .onErrorResume(ImageError.ImageNotFoundError.class,
+                        e -> ErrorResponse.build(e, instance).asMonoResponse(HttpStatus.NOT_FOUND))
+                .onErrorResume(ImageError.ImageSizeLimitExceededError.class,
+                        e -> ErrorResponse.build(e, instance).asMonoResponse(HttpStatus.PAYLOAD_TOO_LARGE))
+                .onErrorResume(ImageError.class, e -> ErrorResponse.build(e, instance).asMonoResponse());
+    }
+
+    @Override
+    @GetMapping(value = "/uuid/{uuid}/url", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BaseResponse>> getDownloadUrl(
+            @PathVariable("uuid") UUID uuid,
+            @RequestParam(value = "w", required = false) Integer width,
+            @RequestParam(value = "fmt", required = false) String format) {
+        var instance = router.getURI("uuid", uuid, "url");
+        return imageService.createDownload(uuid, width, format)
+                .map(download -> SuccessfulResponse.WithData.builder().item(download).instance(instance).build()
+                        .asResponse())
+                .onErrorResume(ImageError.ImageNotFoundError.class,
+                        e -> ErrorResponse.build(e, instance).asMonoResponse(HttpStatus.NOT_FOUND))
+                .onErrorResume(ImageError.class, e -> ErrorResponse.build(e, instance).asMonoResponse());
+    }
+
+    private static Mono<Void> notFound(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+        return exchange.getResponse().setComplete();
+    }
 }
@@ -0,0 +1,8 @@
+package com.ecommerce.nashtech.modules.image.dto;
+
+/**
+ * @param url       The presigned {@code GET} URL.
+ * @param expiresAt When the URL expires, in epoch milliseconds.
+ */
+public record PresignedDownloadDto(String url, Long expiresAt) {
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.nashtech.modules.image.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Where and how to {@code POST} a new image. The client sends a
+ * {@code multipart/form-data} request to {@code uploadUrl} with every entry
+ * of {@code fields}, a {@code Content-Type} field starting with
+ * {@code image/}, and the file as the last field, named {@code file}. Once
+ * the upload has finished, the client reports it complete under
+ * {@code uuid}.
+ *
+ * @param uuid      The uuid the image will have.
+ * @param uploadUrl The URL to post the form to.
+ * @param fields    The signed form fields.
+ * @param expiresAt When the policy expires, in epoch milliseconds.
+ */
+public record PresignedUploadDto(UUID uuid, String uploadUrl, Map<String, String> fields, Long expiresAt) {
+}
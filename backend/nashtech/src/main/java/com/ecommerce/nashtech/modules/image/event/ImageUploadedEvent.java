@@ -0,0 +1,12 @@
+package com.ecommerce.nashtech.modules.image.event;
+
+import java.util.UUID;
+
+/**
+ * Published after the metadata of an image uploaded straight to storage
+ * has been saved, before its dimensions are known.
+ *
+ * @param uuid The uuid of the image.
+ */
+public record ImageUploadedEvent(UUID uuid) {
+}
@@ -0,0 +1,200 @@
+package com.ecommerce.nashtech.modules.image.internal.blob;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.ecommerce.nashtech.modules.image.internal.upload.UploadedContent;
+
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.messages.DeleteObject;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Stores image content once per SHA-256, shared by every image with the
+ * same bytes (see V16).
+ * <p>
+ * Uploads are staged under a key of their own while their hash is
+ * computed. A new blob row is only ever visible together with its object:
+ * the row stays locked until the transaction that saves the image commits,
+ * and the staged object is copied into place before that. A trigger on
+ * {@code images} keeps the reference counts, and blobs that nothing has
+ * referenced for {@code image.blobs.grace} are deleted by the sweeper. Rows
+ * locked by an upload are skipped, so a blob cannot be swept while it is
+ * being reused.
+ * </p>
+ */
+@Component
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ImageBlobStore {
+    private static final String BLOB_PREFIX = "blobs/";
+    private static final String STAGING_PREFIX = "staging/";
+
+    R2dbcEntityTemplate template;
+    TransactionalOperator txOperator;
+    MinioClient minioClient;
+    String bucketName;
+    long graceMillis;
+    int sweepBatchSize;
+
+    public ImageBlobStore(
+            R2dbcEntityTemplate template,
+            TransactionalOperator txOperator,
+            MinioClient minioClient,
+            @Value("${minio.bucket.name}") String bucketName,
+            @Value("${image.blobs.grace:PT1H}") Duration grace,
+            @Value("${image.blobs.sweep-batch-size:100}") int sweepBatchSize) {
+        this.template = template;
+        this.txOperator = txOperator;
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.graceMillis = grace.toMillis();
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * @return a key to stage an upload under until its hash is known.
+     *         Objects left there by a crash are never referenced, so a
+     *         bucket lifecycle rule may expire the prefix.
+     */
+    public String stagingKey(Object id) {
+        return STAGING_PREFIX + id;
+    }
+
+    /**
+     * Finds the blob holding the content, or creates it from the staged
+     * object. Must run in the transaction that saves the image pointing at
+     * the blob.
+     *
+     * @return the object key of the blob.
+     */
+    public Mono<String> acquire(UploadedContent content, String stagedKey) {
+        // The no-op update locks an existing row against the sweeper
+        return template.getDatabaseClient()
+                .sql("""
+                        INSERT INTO image_blobs (content_hash, object_key, size)
+                        VALUES (:hash, :objectKey, :size)
+                        ON CONFLICT (content_hash) DO UPDATE
+                        SET released_at = image_blobs.released_at
+                        RETURNING object_key, (xmax = 0) AS inserted
+                        """)
+                .bind("hash", content.sha256())
+                .bind("objectKey", BLOB_PREFIX + content.sha256())
+                .bind("size", content.size())
+                .map((row, metadata) -> new Acquired(
+                        row.get("object_key", String.class),
+                        Boolean.TRUE.equals(row.get("inserted", Boolean.class))))
+                .one()
+                .flatMap(blob -> blob.inserted()
+                        ? copy(stagedKey, blob.objectKey()).thenReturn(blob.objectKey())
+                        : Mono.just(blob.objectKey()));
+    }
+
+    /**
+     * Deletes a staged object. Never fails: a leftover only costs storage.
+     */
+    public Mono<Void> discard(String stagedKey) {
+        return Mono.fromCallable(() -> {
+            minioClient.removeObject(RemoveObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(stagedKey)
+                    .build());
+            return stagedKey;
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(err -> log.warn("Could not delete staged upload {}", stagedKey, err))
+                .onErrorComplete()
+                .then();
+    }
+
+    /**
+     * Deletes blobs that have had no references for the grace period, in
+     * batches. Each batch removes its objects before its rows commit, so a
+     * failed removal keeps the rows for the next sweep.
+     *
+     * @return the number of deleted blobs.
+     */
+    @Scheduled(fixedDelayString = "${image.blobs.sweep-interval:60000}")
+    public Mono<Long> sweep() {
+        var batch = Mono.defer(() -> template.getDatabaseClient()
+                .sql("""
+                        DELETE FROM image_blobs
+                        WHERE content_hash IN (
+                            SELECT content_hash
+                            FROM image_blobs
+                            WHERE ref_count = 0
+                            AND released_at <= now_millis() - :grace
+                            ORDER BY released_at
+                            LIMIT :limit
+                            FOR UPDATE SKIP LOCKED
+                        )
+                        AND ref_count = 0
+                        RETURNING object_key
+                        """)
+                .bind("grace", graceMillis)
+                .bind("limit", sweepBatchSize)
+                .map((row, metadata) -> row.get("object_key", String.class))
+                .all()
+                .collectList()
+                .flatMap(keys -> remove(keys).thenReturn((long) keys.size()))
+                .as(txOperator::transactional));
+        return batch
+                .expand(deleted -> deleted < sweepBatchSize ? Mono.empty() : batch)
+                .reduce(0L, Long::sum)
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        log.info("Deleted {} unreferenced image blobs", deleted);
+                    }
+                })
+                .doOnError(err -> log.error("Image blob sweep failed", err));
+    }
+
+    private Mono<Void> copy(String source, String target) {
+        return Mono.fromCallable(() -> minioClient.copyObject(CopyObjectArgs.builder()
+                .bucket(bucketName)
+                .object(target)
+                .source(CopySource.builder()
+                        .bucket(bucketName)
+                        .object(source)
+                        .build())
+                .build()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private Mono<Void> remove(List<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+            var results = minioClient.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .objects(objectKeys.stream().map(DeleteObject::new).toList())
+                    .build());
+            // Lazy: iterating sends the request and yields only failures
+            for (var result : results) {
+                var error = result.get();
+                throw new IllegalStateException("Could not delete " + error.objectName() + ": " + error.message());
+            }
+            return objectKeys.size();
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private record Acquired(String objectKey, boolean inserted) {
+    }
+}
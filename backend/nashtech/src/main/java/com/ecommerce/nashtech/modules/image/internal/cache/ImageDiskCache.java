@@ -0,0 +1,211 @@
+package com.ecommerce.nashtech.modules.image.internal.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.ecommerce.nashtech.modules.image.internal.delivery.ImageContent;
+import com.ecommerce.nashtech.shared.types.Option;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A bounded local disk copy of recently served objects, evicted least
+ * recently used first.
+ * <p>
+ * The cache is local to each node and nothing tells it when an object
+ * changes, so entries must be keyed by something that changes with the
+ * content, such as the object key and its entity tag. Each entry is written
+ * to a temporary file, forced to disk and atomically renamed into place, so
+ * a crash leaves either the complete file or a {@code .tmp} leftover that is
+ * deleted on the next start. Entries already on disk are re-indexed on
+ * start, oldest modification first.
+ * </p>
+ */
+@Component
+@Slf4j
+public class ImageDiskCache {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSize;
+    private final long maxEntrySize;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Path, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long size;
+
+    public ImageDiskCache(
+            @Value("${image.cache.enabled:true}") boolean enabled,
+            @Value("${image.cache.directory:${java.io.tmpdir}/nashtech-image-cache}") Path directory,
+            @Value("${image.cache.max-size:2GB}") DataSize maxSize,
+            @Value("${image.cache.max-entry-size:32MB}") DataSize maxEntrySize) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxSize = maxSize.toBytes();
+        this.maxEntrySize = Math.min(maxEntrySize.toBytes(), maxSize.toBytes());
+        if (enabled) {
+            recover();
+        }
+    }
+
+    /**
+     * @param objectSize The object's size, -1 if unknown.
+     * @return whether {@link #store} would keep the object.
+     */
+    public boolean accepts(long objectSize) {
+        return enabled && objectSize >= 0 && objectSize <= maxEntrySize;
+    }
+
+    /**
+     * @return the cached copy of the object, marked as most recently used.
+     *         An entry whose file has gone missing is dropped.
+     */
+    public Option<ImageContent.Cached> lookup(String key) {
+        if (!enabled) {
+            return Option.none();
+        }
+        var path = pathOf(key);
+        Long length;
+        synchronized (this) {
+            length = entries.get(path);
+        }
+        if (length == null) {
+            return Option.none();
+        }
+        if (!Files.isRegularFile(path)) {
+            evict(key);
+            return Option.none();
+        }
+        return Option.some(new ImageContent.Cached(path, length));
+    }
+
+    /**
+     * Copies the object into the cache. Blocks, so call it off the event
+     * loop.
+     *
+     * @return the cached file.
+     */
+    public Path store(String key, InputStream content) throws IOException {
+        var path = pathOf(key);
+        Files.createDirectories(path.getParent());
+        var temp = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + TEMP_SUFFIX);
+        try {
+            long written;
+            try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                written = content.transferTo(Channels.newOutputStream(channel));
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            delete(admit(path, written));
+            return path;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public void evict(String key) {
+        if (!enabled) {
+            return;
+        }
+        var path = pathOf(key);
+        synchronized (this) {
+            var removed = entries.remove(path);
+            if (removed != null) {
+                size -= removed;
+            }
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not evict cached image {}", path, e);
+        }
+    }
+
+    /**
+     * @return the files evicted to make room, for the caller to delete once
+     *         the lock is released.
+     */
+    private synchronized List<Path> admit(Path path, long entrySize) {
+        var previous = entries.put(path, entrySize);
+        size += entrySize - (previous == null ? 0 : previous);
+        var evicted = new ArrayList<Path>();
+        var iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            var eldest = iterator.next();
+            if (eldest.getKey().equals(path)) {
+                continue;
+            }
+            iterator.remove();
+            size -= eldest.getValue();
+            evicted.add(eldest.getKey());
+        }
+        return evicted;
+    }
+
+    private static void delete(List<Path> evicted) {
+        for (var file : evicted) {
+            try {
+                // Readers that already opened the file keep reading it
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not evict cached image {}", file, e);
+            }
+        }
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            try (var files = Files.walk(directory)) {
+                var cached = files.filter(Files::isRegularFile).toList();
+                var byAge = new TreeMap<FileTime, List<Path>>();
+                for (var file : cached) {
+                    if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        Files.deleteIfExists(file);
+                    } else {
+                        byAge.computeIfAbsent(Files.getLastModifiedTime(file), time -> new ArrayList<>()).add(file);
+                    }
+                }
+                for (var sameTime : byAge.values()) {
+                    for (var file : sameTime) {
+                        delete(admit(file, Files.size(file)));
+                    }
+                }
+            }
+            log.info("Image cache at {} holds {} files, {} bytes", directory, entries.size(), size);
+        } catch (IOException e) {
+            log.warn("Could not read image cache directory {}", directory, e);
+        }
+    }
+
+    private Path pathOf(String key) {
+        try {
+            var hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(key.getBytes(StandardCharsets.UTF_8)));
+            // Fan out so no directory grows too large
+            return directory.resolve(hash.substring(0, 2)).resolve(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.nashtech.modules.image.internal.delivery;
+
+import java.nio.file.Path;
+
+/**
+ * Where the bytes of a served object come from.
+ */
+public sealed interface ImageContent permits ImageContent.Cached, ImageContent.Remote {
+
+    /**
+     * @return the object's size in bytes, -1 if unknown.
+     */
+    long length();
+
+    /**
+     * A copy in the local disk cache.
+     */
+    record Cached(Path file, long length) implements ImageContent {
+    }
+
+    /**
+     * An object read from MinIO on every request.
+     */
+    record Remote(String objectKey, long length) implements ImageContent {
+    }
+}
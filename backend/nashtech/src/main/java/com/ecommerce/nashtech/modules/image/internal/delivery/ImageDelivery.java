@@ -0,0 +1,169 @@
+package com.ecommerce.nashtech.modules.image.internal.delivery;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.ecommerce.nashtech.shared.types.Option;
+
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Writes an image to the response with conditional request, byte range and
+ * caching headers.
+ * <p>
+ * A matching {@code If-None-Match} is answered with {@code 304}. A single
+ * satisfiable {@code Range} is answered with {@code 206}: cached files send
+ * just that region with zero-copy file transfer, and objects that are not
+ * cached fetch only that range from MinIO. Multiple ranges fall back to the
+ * whole object, as HTTP allows. UUID-addressed images never change, so
+ * they are marked {@code immutable} for browsers and the CDN.
+ * </p>
+ */
+@Component
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ImageDelivery {
+    private static final int BUFFER_SIZE = 8192;
+
+    MinioClient minioClient;
+    String bucketName;
+    CacheControl immutable;
+
+    public ImageDelivery(
+            MinioClient minioClient,
+            @Value("${minio.bucket.name}") String bucketName,
+            @Value("${image.delivery.max-age:P365D}") Duration maxAge) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.immutable = CacheControl.maxAge(maxAge).cachePublic().immutable();
+    }
+
+    /**
+     * @param mimeType  The content type, {@code null} if unknown.
+     * @param etag      The entity tag, {@code null} if the object has none.
+     * @param immutable Whether the content can never change under this URL.
+     */
+    public Mono<Void> write(
+            ServerWebExchange exchange,
+            ImageContent content,
+            String mimeType,
+            String etag,
+            boolean immutable) {
+        var response = exchange.getResponse();
+        var headers = response.getHeaders();
+        headers.setCacheControl(immutable ? this.immutable : CacheControl.noCache());
+        if (etag != null && exchange.checkNotModified(etag)) {
+            return response.setComplete();
+        }
+        headers.setContentType(mimeType != null
+                ? MediaType.parseMediaType(mimeType)
+                : MediaType.APPLICATION_OCTET_STREAM);
+
+        var length = content.length();
+        if (length < 0) {
+            return response.writeWith(read(content, 0, -1, response.bufferFactory()));
+        }
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        List<HttpRange> ranges;
+        try {
+            ranges = ranges(exchange, headers.getETag());
+        } catch (IllegalArgumentException e) {
+            return unsatisfiable(exchange, length);
+        }
+        if (ranges.size() != 1) {
+            headers.setContentLength(length);
+            return write(exchange, content, 0, length);
+        }
+        long start;
+        long end;
+        try {
+            start = ranges.get(0).getRangeStart(length);
+            end = ranges.get(0).getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            return unsatisfiable(exchange, length);
+        }
+        // Range end is clamped to the content, its start is not
+        if (start >= length) {
+            return unsatisfiable(exchange, length);
+        }
+        response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(start, end, length));
+        headers.setContentLength(end - start + 1);
+        return write(exchange, content, start, end - start + 1);
+    }
+
+    /**
+     * @return the requested ranges, none when {@code If-Range} no longer
+     *         matches the entity.
+     */
+    private static List<HttpRange> ranges(ServerWebExchange exchange, String etag) {
+        var requestHeaders = exchange.getRequest().getHeaders();
+        var ifRange = Option.fromNullable(requestHeaders.getFirst(HttpHeaders.IF_RANGE));
+        if (ifRange.isSome() && !ifRange.unwrap().equals(etag)) {
+            return List.of();
+        }
+        return requestHeaders.getRange();
+    }
+
+    private static Mono<Void> unsatisfiable(ServerWebExchange exchange, long length) {
+        var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.getHeaders().set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        return response.setComplete();
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ImageContent content, long position, long count) {
+        var response = exchange.getResponse();
+        if (content instanceof ImageContent.Cached cached
+                && response instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+            return zeroCopy.writeWith(cached.file(), position, count);
+        }
+        return response.writeWith(read(content, position, count, response.bufferFactory()));
+    }
+
+    /**
+     * @param count How many bytes to read, -1 for the rest of the content.
+     */
+    private Flux<DataBuffer> read(ImageContent content, long position, long count, DataBufferFactory factory) {
+        return switch (content) {
+            case ImageContent.Cached cached -> {
+                var file = DataBufferUtils.readAsynchronousFileChannel(
+                        () -> AsynchronousFileChannel.open(cached.file(), StandardOpenOption.READ),
+                        position, factory, BUFFER_SIZE);
+                yield count < 0 ? file : DataBufferUtils.takeUntilByteCount(file, count);
+            }
+            case ImageContent.Remote remote -> {
+                var args = GetObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(remote.objectKey());
+                if (count >= 0) {
+                    args.offset(position).length(count);
+                }
+                yield Mono.fromCallable(() -> minioClient.getObject(args.build()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapMany(stream -> DataBufferUtils.readInputStream(
+                                () -> stream, factory, BUFFER_SIZE));
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.nashtech.modules.image.internal.presign;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.PostPolicy;
+import io.minio.http.Method;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Mono;
+
+/**
+ * Signs short-lived URLs and upload policies that let clients post and get
+ * objects directly in MinIO, so the bytes never pass through this
+ * application.
+ * <p>
+ * Uploads use a browser-based {@code POST} policy rather than a presigned
+ * {@code PUT}, so that MinIO itself rejects files over
+ * {@code image.presign.max-size} and content types other than images.
+ * </p>
+ * <p>
+ * Signing uses its own client, configured with the endpoint clients can
+ * reach and a fixed region. With the region known, signing is a local
+ * computation and never asks MinIO for the bucket location.
+ * </p>
+ */
+@Component
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ImagePresigner {
+    MinioClient signer;
+    String uploadUrl;
+    String bucketName;
+    long maxSize;
+    Duration uploadExpiry;
+    Duration downloadExpiry;
+
+    public ImagePresigner(
+            @Value("${image.presign.endpoint:${minio.url}}") String endpoint,
+            @Value("${image.presign.region:us-east-1}") String region,
+            @Value("${minio.access.name}") String accessKey,
+            @Value("${minio.access.secret}") String secretKey,
+            @Value("${minio.bucket.name}") String bucketName,
+            @Value("${image.presign.upload-expiry:PT10M}") Duration uploadExpiry,
+            @Value("${image.presign.max-size:20MB}") DataSize maxSize,
+            @Value("${image.presign.download-expiry:PT5M}") Duration downloadExpiry) {
+        this.signer = MinioClient.builder()
+                .endpoint(endpoint)
+                .region(region)
+                .credentials(accessKey, secretKey)
+                .build();
+        // Path-style, as the form's key field names the object
+        this.uploadUrl = endpoint.replaceAll("/+$", "") + "/" + bucketName;
+        this.bucketName = bucketName;
+        this.maxSize = maxSize.toBytes();
+        this.uploadExpiry = uploadExpiry;
+        this.downloadExpiry = downloadExpiry;
+    }
+
+    /**
+     * Signs a policy to post one image of at most
+     * {@code image.presign.max-size} bytes under the key. The client posts
+     * the returned fields, a {@code Content-Type} field starting with
+     * {@code image/}, and the file last.
+     */
+    public Mono<PresignedPost> upload(String objectKey) {
+        return Mono.fromCallable(() -> {
+            var expiresAt = System.currentTimeMillis() + uploadExpiry.toMillis();
+            var policy = new PostPolicy(bucketName,
+                    Instant.ofEpochMilli(expiresAt).atZone(ZoneOffset.UTC));
+            policy.addEqualsCondition("key", objectKey);
+            policy.addStartsWithCondition("Content-Type", "image/");
+            policy.addContentLengthRangeCondition(1L, maxSize);
+            var fields = new HashMap<>(signer.getPresignedPostFormData(policy));
+            fields.put("key", objectKey);
+            return new PresignedPost(uploadUrl, fields, expiresAt);
+        });
+    }
+
+    public Mono<PresignedUrl> download(String objectKey) {
+        return sign(Method.GET, objectKey, downloadExpiry);
+    }
+
+    private Mono<PresignedUrl> sign(Method method, String objectKey, Duration expiry) {
+        return Mono.fromCallable(() -> {
+            var expiresAt = System.currentTimeMillis() + expiry.toMillis();
+            var url = signer.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .method(method)
+                    .bucket(bucketName)
+                    .object(objectKey)
+                    .expiry((int) expiry.toSeconds(), TimeUnit.SECONDS)
+                    .build());
+            return new PresignedUrl(url, expiresAt);
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package com.ecommerce.nashtech.modules.image.internal.presign;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.messages.DeleteObject;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps track of direct uploads that have been issued but not completed
+ * (see V17).
+ * <p>
+ * Only uploads recorded here can be completed, and only until
+ * {@code image.presign.complete-within} after their policy expires.
+ * Completion consumes the record in the transaction that saves the image.
+ * Records left past that window are deleted by the sweeper together with
+ * any object the client uploaded but never completed.
+ * </p>
+ */
+@Component
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class PendingUploads {
+    R2dbcEntityTemplate template;
+    TransactionalOperator txOperator;
+    MinioClient minioClient;
+    String bucketName;
+    long completeWithinMillis;
+    int sweepBatchSize;
+
+    public PendingUploads(
+            R2dbcEntityTemplate template,
+            TransactionalOperator txOperator,
+            MinioClient minioClient,
+            @Value("${minio.bucket.name}") String bucketName,
+            @Value("${image.presign.complete-within:PT1H}") Duration completeWithin,
+            @Value("${image.presign.sweep-batch-size:100}") int sweepBatchSize) {
+        this.template = template;
+        this.txOperator = txOperator;
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.completeWithinMillis = completeWithin.toMillis();
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * @param expiresAt When the upload policy expires, in epoch
+     *                  milliseconds.
+     */
+    public Mono<Void> issue(UUID uuid, String objectKey, long expiresAt) {
+        return template.getDatabaseClient()
+                .sql("""
+                        INSERT INTO pending_uploads (uuid, object_key, expires_at)
+                        VALUES (:uuid, :objectKey, :expiresAt)
+                        """)
+                .bind("uuid", uuid)
+                .bind("objectKey", objectKey)
+                .bind("expiresAt", expiresAt)
+                .then();
+    }
+
+    /**
+     * Consumes the record of an upload. Must run in the transaction that
+     * saves the image, so a failed completion keeps the record.
+     *
+     * @return the object key the upload was issued for, empty if the upload
+     *         was never issued, was already completed or has expired.
+     */
+    public Mono<String> consume(UUID uuid) {
+        return template.getDatabaseClient()
+                .sql("""
+                        DELETE FROM pending_uploads
+                        WHERE uuid = :uuid
+                        AND expires_at > now_millis() - :completeWithin
+                        RETURNING object_key
+                        """)
+                .bind("uuid", uuid)
+                .bind("completeWithin", completeWithinMillis)
+                .map((row, metadata) -> row.get("object_key", String.class))
+                .one();
+    }
+
+    /**
+     * Deletes uploads that were not completed in time, in batches. Each
+     * batch removes its objects before its rows commit, so a failed removal
+     * keeps the rows for the next sweep.
+     *
+     * @return the number of deleted uploads.
+     */
+    @Scheduled(fixedDelayString = "${image.presign.sweep-interval:60000}")
+    public Mono<Long> sweep() {
+        var batch = Mono.defer(() -> template.getDatabaseClient()
+                .sql("""
+                        DELETE FROM pending_uploads
+                        WHERE uuid IN (
+                            SELECT uuid
+                            FROM pending_uploads
+                            WHERE expires_at <= now_millis() - :completeWithin
+                            ORDER BY expires_at
+                            LIMIT :limit
+                            FOR UPDATE SKIP LOCKED
+                        )
+                        RETURNING object_key
+                        """)
+                .bind("completeWithin", completeWithinMillis)
+                .bind("limit", sweepBatchSize)
+                .map((row, metadata) -> row.get("object_key", String.class))
+                .all()
+                .collectList()
+                .flatMap(keys -> remove(keys).thenReturn((long) keys.size()))
+                .as(txOperator::transactional));
+        return batch
+                .expand(deleted -> deleted < sweepBatchSize ? Mono.empty() : batch)
+                .reduce(0L, Long::sum)
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        log.info("Deleted {} abandoned direct uploads", deleted);
+                    }
+                })
+                .doOnError(err -> log.error("Direct upload sweep failed", err));
+    }
+
+    /**
+     * Removes the objects. Keys nothing was uploaded under are not an
+     * error.
+     */
+    private Mono<Void> remove(List<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+            var results = minioClient.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .objects(objectKeys.stream().map(DeleteObject::new).toList())
+                    .build());
+            // Lazy: iterating sends the request and yields only failures
+            for (var result : results) {
+                var error = result.get();
+                throw new IllegalStateException("Could not delete " + error.objectName() + ": " + error.message());
+            }
+            return objectKeys.size();
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.nashtech.modules.image.internal.presign;
+
+import java.util.Map;
+
+/**
+ * @param url       Where to post the form.
+ * @param fields    The form fields carrying the signed policy.
+ * @param expiresAt When the policy expires, in epoch milliseconds.
+ */
+public record PresignedPost(String url, Map<String, String> fields, long expiresAt) {
+}
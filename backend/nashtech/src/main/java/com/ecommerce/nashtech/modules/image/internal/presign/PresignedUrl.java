@@ -0,0 +1,8 @@
+package com.ecommerce.nashtech.modules.image.internal.presign;
+
+/**
+ * @param url       The signed URL.
+ * @param expiresAt When the signature expires, in epoch milliseconds.
+ */
+public record PresignedUrl(String url, long expiresAt) {
+}
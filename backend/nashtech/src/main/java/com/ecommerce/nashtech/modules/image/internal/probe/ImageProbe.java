@@ -0,0 +1,214 @@
+package com.ecommerce.nashtech.modules.image.internal.probe;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import com.ecommerce.nashtech.shared.types.Option;
+
+/**
+ * Reads the real format and the dimensions of an image from its first
+ * bytes, without decoding any pixel data.
+ * <p>
+ * JPEG, PNG, GIF, WebP and BMP headers are parsed directly. Anything else
+ * is handed to the matching {@code ImageReader}, which only reads as far
+ * as its header too.
+ * </p>
+ */
+public final class ImageProbe {
+
+    /**
+     * @param mimeType The MIME type of the detected format.
+     * @param width    The width in pixels.
+     * @param height   The height in pixels.
+     */
+    public record ImageHeader(String mimeType, int width, int height) {
+    }
+
+    private ImageProbe() {
+    }
+
+    /**
+     * @param head   The leading bytes of the file.
+     * @param length How many bytes of {@code head} are valid.
+     * @return the header, none if the bytes are not a recognised image or
+     *         are cut off before its dimensions.
+     */
+    public static Option<ImageHeader> probe(byte[] head, int length) {
+        var bytes = new Bytes(head, length);
+        Option<ImageHeader> header;
+        if (bytes.startsWith(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            header = png(bytes);
+        } else if (bytes.startsWith(0xFF, 0xD8)) {
+            header = jpeg(bytes);
+        } else if (bytes.startsWith('G', 'I', 'F', '8')) {
+            header = gif(bytes);
+        } else if (bytes.startsWith('R', 'I', 'F', 'F') && bytes.matches(8, 'W', 'E', 'B', 'P')) {
+            header = webp(bytes);
+        } else if (bytes.startsWith('B', 'M')) {
+            header = bmp(bytes);
+        } else {
+            header = Option.none();
+        }
+        return header.isSome() ? header : imageReader(head, length);
+    }
+
+    private static Option<ImageHeader> png(Bytes bytes) {
+        // The IHDR chunk always comes first
+        if (!bytes.has(24) || !bytes.matches(12, 'I', 'H', 'D', 'R')) {
+            return Option.none();
+        }
+        return header("image/png", bytes.int32BE(16), bytes.int32BE(20));
+    }
+
+    private static Option<ImageHeader> jpeg(Bytes bytes) {
+        var i = 2;
+        while (bytes.has(i + 4)) {
+            if (bytes.u8(i) != 0xFF) {
+                return Option.none();
+            }
+            var marker = bytes.u8(i + 1);
+            if (marker == 0xFF) {
+                // Fill byte
+                i++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+                // Markers without a payload
+                i += 2;
+                continue;
+            }
+            // SOF0-SOF15, except DHT (C4), JPG (C8) and DAC (CC)
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                if (!bytes.has(i + 9)) {
+                    return Option.none();
+                }
+                return header("image/jpeg", bytes.u16BE(i + 7), bytes.u16BE(i + 5));
+            }
+            i += 2 + bytes.u16BE(i + 2);
+        }
+        return Option.none();
+    }
+
+    private static Option<ImageHeader> gif(Bytes bytes) {
+        if (!bytes.has(10)) {
+            return Option.none();
+        }
+        return header("image/gif", bytes.u16LE(6), bytes.u16LE(8));
+    }
+
+    private static Option<ImageHeader> webp(Bytes bytes) {
+        if (!bytes.has(30)) {
+            return Option.none();
+        }
+        if (bytes.matches(12, 'V', 'P', '8', ' ')) {
+            // Lossy: key frame header after the 0x9D012A start code
+            if (!bytes.matches(23, 0x9D, 0x01, 0x2A)) {
+                return Option.none();
+            }
+            return header("image/webp", bytes.u16LE(26) & 0x3FFF, bytes.u16LE(28) & 0x3FFF);
+        }
+        if (bytes.matches(12, 'V', 'P', '8', 'L')) {
+            // Lossless: 14-bit width and height minus one after the 0x2F signature
+            if (bytes.u8(20) != 0x2F) {
+                return Option.none();
+            }
+            var bits = bytes.int32LE(21);
+            return header("image/webp", (bits & 0x3FFF) + 1, ((bits >> 14) & 0x3FFF) + 1);
+        }
+        if (bytes.matches(12, 'V', 'P', '8', 'X')) {
+            // Extended: 24-bit canvas width and height minus one
+            return header("image/webp", bytes.u24LE(24) + 1, bytes.u24LE(27) + 1);
+        }
+        return Option.none();
+    }
+
+    private static Option<ImageHeader> bmp(Bytes bytes) {
+        if (!bytes.has(26)) {
+            return Option.none();
+        }
+        if (bytes.int32LE(14) == 12) {
+            // OS/2 BITMAPCOREHEADER
+            return header("image/bmp", bytes.u16LE(18), bytes.u16LE(20));
+        }
+        // Negative heights mark top-down bitmaps
+        return header("image/bmp", bytes.int32LE(18), Math.abs(bytes.int32LE(22)));
+    }
+
+    private static Option<ImageHeader> imageReader(byte[] head, int length) {
+        try (var input = ImageIO.createImageInputStream(new ByteArrayInputStream(head, 0, length))) {
+            var readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return Option.none();
+            }
+            var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                var mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                var mimeType = mimeTypes != null && mimeTypes.length > 0
+                        ? mimeTypes[0]
+                        : "application/octet-stream";
+                return header(mimeType, reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return Option.none();
+        }
+    }
+
+    private static Option<ImageHeader> header(String mimeType, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return Option.none();
+        }
+        return Option.some(new ImageHeader(mimeType, width, height));
+    }
+
+    private record Bytes(byte[] data, int length) {
+
+        boolean has(int count) {
+            return count <= length;
+        }
+
+        int u8(int offset) {
+            return data[offset] & 0xFF;
+        }
+
+        int u16BE(int offset) {
+            return (u8(offset) << 8) | u8(offset + 1);
+        }
+
+        int u16LE(int offset) {
+            return u8(offset) | (u8(offset + 1) << 8);
+        }
+
+        int u24LE(int offset) {
+            return u16LE(offset) | (u8(offset + 2) << 16);
+        }
+
+        int int32BE(int offset) {
+            return (u16BE(offset) << 16) | u16BE(offset + 2);
+        }
+
+        int int32LE(int offset) {
+            return u16LE(offset) | (u16LE(offset + 2) << 16);
+        }
+
+        boolean startsWith(int... signature) {
+            return matches(0, signature);
+        }
+
+        boolean matches(int offset, int... signature) {
+            if (!has(offset + signature.length)) {
+                return false;
+            }
+            for (var i = 0; i < signature.length; i++) {
+                if (u8(offset + i) != signature[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.nashtech.modules.image.internal.probe;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.ecommerce.nashtech.modules.image.event.ImageUploadedEvent;
+import com.ecommerce.nashtech.modules.image.internal.repository.ImageRepository;
+
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Fills in the format and dimensions of images uploaded straight to
+ * storage.
+ * <p>
+ * Only the first {@code minio.upload.head-size} bytes are fetched, with a
+ * ranged read, and handed to {@link ImageProbe}. The returned {@code Mono}
+ * is subscribed by the event infrastructure, so completing an upload does
+ * not wait for it. An image that cannot be probed keeps the declared type
+ * and zero dimensions, as it would after a multipart upload.
+ * </p>
+ */
+@Component
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ImageProbeListener {
+    ImageRepository imageRepo;
+    MinioClient minioClient;
+    String bucketName;
+    int headSize;
+
+    public ImageProbeListener(
+            ImageRepository imageRepo,
+            MinioClient minioClient,
+            @Value("${minio.bucket.name}") String bucketName,
+            @Value("${minio.upload.head-size:128KB}") DataSize headSize) {
+        this.imageRepo = imageRepo;
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.headSize = (int) headSize.toBytes();
+    }
+
+    @EventListener
+    public Mono<Void> on(ImageUploadedEvent event) {
+        return imageRepo.findByUuid(event.uuid())
+                .flatMap(image -> head(image.getObjectKey())
+                        .flatMap(header -> {
+                            image.setMimeType(header.mimeType());
+                            image.setWidth(header.width());
+                            image.setHeight(header.height());
+                            return imageRepo.save(image);
+                        })
+                        .switchIfEmpty(Mono.fromRunnable(
+                                () -> log.warn("Image {} is not a recognised image", event.uuid()))))
+                .doOnError(err -> log.warn("Probing image {} failed", event.uuid(), err))
+                .onErrorComplete()
+                .then();
+    }
+
+    private Mono<ImageProbe.ImageHeader> head(String objectKey) {
+        return Mono.fromCallable(() -> {
+            try (var object = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectKey)
+                    .offset(0L)
+                    .length((long) headSize)
+                    .build())) {
+                var head = object.readNBytes(headSize);
+                return ImageProbe.probe(head, head.length);
+            }
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(header -> header.isSome() ? Mono.just(header.unwrap()) : Mono.<ImageProbe.ImageHeader>empty());
+    }
+}
@@ -27,11 +27,22 @@ public interface ImageRepository extends R2dbcRepository<Image, Long> {
     @Query("SELECT * FROM product_image WHERE product_id = :productId")
     Flux<Image> findAllByProductId(Long productId);
 
+    /**
+     * @return the images in no particular order; duplicates in
+     *         {@code uuids} are returned once.
+     */
+    @Query("SELECT * FROM images WHERE uuid = ANY(:uuids)")
+    Flux<Image> findAllByUuids(UUID[] uuids);
+
+    /**
+     * @return the images linked to the product, in upload order.
+     */
     @Query("""
-                    SELECT *
+                    SELECT i.*
                     FROM product_image AS pi
-                    INNER JOIN product AS p ON pi.product_id = p.id
-                    WHERE p.uuid = :productUuid
+                    INNER JOIN images AS i ON i.uuid = pi.image_uuid
+                    WHERE pi.product_uuid = :productUuid
+                    ORDER BY pi.id
             """)
     Flux<Image> findAllByProductUuid(UUID productUuid);
 
@@ -0,0 +1,15 @@
+package com.ecommerce.nashtech.modules.image.internal.repository;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.nashtech.modules.image.model.ImageVariant;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ImageVariantRepository extends R2dbcRepository<ImageVariant, Long> {
+
+    Mono<ImageVariant> findByImageIdAndWidthAndFormat(Long imageId, Integer width, String format);
+
+}
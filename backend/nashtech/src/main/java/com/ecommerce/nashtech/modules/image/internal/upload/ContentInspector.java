@@ -0,0 +1,71 @@
+package com.ecommerce.nashtech.modules.image.internal.upload;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import com.ecommerce.nashtech.modules.image.internal.probe.ImageProbe;
+import com.ecommerce.nashtech.modules.image.internal.probe.ImageProbe.ImageHeader;
+
+/**
+ * Measures an upload while it streams through: its size, its SHA-256 and
+ * its first bytes, which hold the image header.
+ * <p>
+ * Buffers are inspected without being consumed, so {@link #update} can sit
+ * in the middle of a {@code Flux<DataBuffer>} pipeline. Not thread-safe, but
+ * the buffers of a single stream are signalled one at a time.
+ * </p>
+ */
+public class ContentInspector {
+    private final MessageDigest digest;
+    private final byte[] head;
+    private int headLength;
+    private long size;
+
+    /**
+     * @param headSize How many leading bytes to keep for header parsing.
+     */
+    public ContentInspector(int headSize) {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        this.head = new byte[headSize];
+    }
+
+    public DataBuffer update(DataBuffer buffer) {
+        try (var iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                update(iterator.next());
+            }
+        }
+        return buffer;
+    }
+
+    private void update(ByteBuffer bytes) {
+        size += bytes.remaining();
+        if (headLength < head.length) {
+            var copied = Math.min(head.length - headLength, bytes.remaining());
+            bytes.duplicate().get(head, headLength, copied);
+            headLength += copied;
+        }
+        digest.update(bytes);
+    }
+
+    /**
+     * Completes the hash, so call it once, after the last buffer.
+     */
+    public UploadedContent result() {
+        var header = ImageProbe.probe(head, headLength);
+        return new UploadedContent(
+                size,
+                HexFormat.of().formatHex(digest.digest()),
+                header.map(ImageHeader::mimeType),
+                header.mapOr(0, ImageHeader::width),
+                header.mapOr(0, ImageHeader::height));
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.nashtech.modules.image.internal.upload;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Pipes an upload to object storage without holding the whole file.
+ * <p>
+ * The content is read through a bounded {@code InputStream} that requests
+ * at most {@code minio.upload.prefetch} buffers ahead, and is handed to
+ * MinIO with an unknown length. MinIO then buffers one part of
+ * {@code minio.upload.part-size} at a time: smaller files go up in a single
+ * request and larger ones as a multipart upload. Size, hash and header are
+ * measured by a {@link ContentInspector} on the way through.
+ * </p>
+ */
+@Component
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class StreamingImageUploader {
+    MinioClient minioClient;
+    String bucketName;
+    long partSize;
+    int prefetch;
+    int headSize;
+
+    public StreamingImageUploader(
+            MinioClient minioClient,
+            @Value("${minio.bucket.name}") String bucketName,
+            @Value("${minio.upload.part-size:5MB}") DataSize partSize,
+            @Value("${minio.upload.prefetch:16}") int prefetch,
+            @Value("${minio.upload.head-size:128KB}") DataSize headSize) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        // MinIO rejects multipart parts smaller than 5 MiB
+        this.partSize = Math.max(partSize.toBytes(), DataSize.ofMegabytes(5).toBytes());
+        this.prefetch = prefetch;
+        this.headSize = (int) headSize.toBytes();
+    }
+
+    public Mono<UploadedContent> upload(Flux<DataBuffer> content, String objectKey, String contentType) {
+        return Mono.fromCallable(() -> {
+            var inspector = new ContentInspector(headSize);
+            try (var stream = DataBufferUtils.subscriberInputStream(content.map(inspector::update), prefetch)) {
+                minioClient.putObject(PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectKey)
+                        .stream(stream, -1, partSize)
+                        .contentType(contentType)
+                        .build());
+            }
+            return inspector.result();
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.nashtech.modules.image.internal.upload;
+
+import com.ecommerce.nashtech.shared.types.Option;
+
+/**
+ * What {@link ContentInspector} measured while an upload streamed through.
+ *
+ * @param size     The size in bytes.
+ * @param sha256   The lowercase hex SHA-256 of the content.
+ * @param mimeType The MIME type sniffed from the header, none if it is not
+ *                 a recognised image.
+ * @param width    The image width in pixels, 0 if unknown.
+ * @param height   The image height in pixels, 0 if unknown.
+ */
+public record UploadedContent(long size, String sha256, Option<String> mimeType, int width, int height) {
+}
@@ -0,0 +1,371 @@
+package com.ecommerce.nashtech.modules.image.internal.variant;
+
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.ecommerce.nashtech.modules.image.error.ImageError;
+import com.ecommerce.nashtech.modules.image.internal.repository.ImageRepository;
+import com.ecommerce.nashtech.modules.image.internal.repository.ImageVariantRepository;
+import com.ecommerce.nashtech.modules.image.model.Image;
+import com.ecommerce.nashtech.modules.image.model.ImageVariant;
+import com.ecommerce.nashtech.shared.types.Option;
+import com.ecommerce.nashtech.shared.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Resolves resized and re-encoded variants of an image, generating them on
+ * first request (see V15).
+ * <p>
+ * Requested widths are rounded up to one of {@code image.variants.widths}
+ * so each image has a handful of variants at most, and images are never
+ * scaled up. A variant is stored next to its original under a deterministic
+ * key and recorded in {@code image_variants}, so later requests, from any
+ * node, are served straight from storage. Generation runs on a dedicated
+ * bounded pool; concurrent requests for the same variant share one
+ * generation, and requests arriving while the pool's queue is full get the
+ * original instead, marked as not immutable so clients ask again.
+ * </p>
+ */
+@Component
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ImageVariants implements DisposableBean {
+    ImageRepository imageRepo;
+    ImageVariantRepository variantRepo;
+    R2dbcEntityTemplate template;
+    MinioClient minioClient;
+    String bucketName;
+    List<Integer> widths;
+    float jpegQuality;
+    long maxPixels;
+    int maxDimension;
+    Scheduler workers;
+    Cache<VariantKey, ResolvedImage> resolved;
+    SingleFlight<String, ResolvedImage> generations = new SingleFlight<>();
+
+    public ImageVariants(
+            ImageRepository imageRepo,
+            ImageVariantRepository variantRepo,
+            R2dbcEntityTemplate template,
+            MinioClient minioClient,
+            @Value("${minio.bucket.name}") String bucketName,
+            @Value("${image.variants.widths:160,320,640,1024,1600}") Integer[] widths,
+            @Value("${image.variants.jpeg-quality:0.85}") float jpegQuality,
+            @Value("${image.variants.max-pixels:40000000}") long maxPixels,
+            @Value("${image.variants.max-dimension:2048}") int maxDimension,
+            @Value("${image.variants.workers:2}") int workers,
+            @Value("${image.variants.queue-size:64}") int queueSize,
+            @Value("${image.variants.cache-size:10000}") long cacheSize) {
+        this.imageRepo = imageRepo;
+        this.variantRepo = variantRepo;
+        this.template = template;
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.widths = Arrays.stream(widths).sorted().toList();
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        this.maxDimension = maxDimension;
+        this.workers = Schedulers.newBoundedElastic(workers, queueSize, "image-variants");
+        this.resolved = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    /**
+     * @param width  The requested width, {@code null} to keep the original's.
+     * @param format The requested format name, {@code null} to keep the
+     *               original's.
+     * @return the object to serve, the original when it already matches the
+     *         request or cannot be transformed.
+     */
+    public Mono<ResolvedImage> resolve(UUID uuid, Integer width, String format) {
+        if (width != null && width <= 0) {
+            return Mono.error(new ServerWebInputException("Invalid image width: " + width));
+        }
+        Format requested = null;
+        if (format != null) {
+            requested = Format.parse(format).unwrapOr(null);
+            if (requested == null) {
+                return Mono.error(new ServerWebInputException("Unsupported image format: " + format));
+            }
+        }
+        var key = new VariantKey(uuid, width, requested);
+        return Mono.defer(() -> {
+            var cached = resolved.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return imageRepo.findByUuid(uuid)
+                    .switchIfEmpty(Mono.error(ImageError.ImageNotFoundError.build(Option.some(uuid.toString()))))
+                    .flatMap(image -> resolve(image, key)
+                            .doOnNext(served -> resolved.put(key, served))
+                            // Not cached, the next request tries again
+                            .onErrorResume(RejectedExecutionException.class, e -> {
+                                log.warn("Image variant pool is saturated, serving the original of {}", uuid);
+                                var original = original(image);
+                                return Mono.just(new ResolvedImage(
+                                        original.objectKey(), original.mimeType(), original.etag(), false));
+                            }));
+        });
+    }
+
+    private Mono<ResolvedImage> resolve(Image image, VariantKey key) {
+        var original = Format.ofMimeType(image.getMimeType());
+        var format = key.format() != null ? key.format() : original.unwrapOr(Format.JPEG);
+        // 0 stands for the original width, also when it is not known
+        var width = key.width() == null ? 0 : snap(key.width());
+        if (image.getWidth() != null && image.getWidth() > 0 && width >= image.getWidth()) {
+            width = 0;
+        }
+        if (width == 0 && original.isSome() && original.unwrap() == format) {
+            return Mono.just(original(image));
+        }
+        var targetWidth = width;
+        var objectKey = "variants/%s/%d.%s".formatted(image.getUuid(), width, format.extension);
+        // Variants are immutable under their key, so it doubles as the tag
+        var variant = new ResolvedImage(objectKey, format.mimeType, objectKey, true);
+        return variantRepo.findByImageIdAndWidthAndFormat(image.getId(), width, format.formatName)
+                .map(stored -> variant)
+                .switchIfEmpty(Mono.defer(() -> generations.execute(objectKey,
+                        () -> generate(image, targetWidth, format, variant))));
+    }
+
+    private static ResolvedImage original(Image image) {
+        var etag = image.getContentHash() != null ? image.getContentHash() : image.getUuid().toString();
+        return new ResolvedImage(image.getObjectKey(), image.getMimeType(), etag, true);
+    }
+
+    int snap(int width) {
+        return widths.stream()
+                .filter(allowed -> allowed >= width)
+                .findFirst()
+                .orElse(widths.get(widths.size() - 1));
+    }
+
+    private Mono<ResolvedImage> generate(Image image, int width, Format format, ResolvedImage variant) {
+        var objectKey = variant.objectKey();
+        return Mono.fromCallable(() -> render(image, width, format, objectKey))
+                .subscribeOn(workers)
+                .flatMap(rendered -> switch (rendered) {
+                    case Option.Some<ImageVariant> some -> record(some.get())
+                            .doOnSuccess(recorded -> log.info("Generated image variant {}", objectKey))
+                            .thenReturn(variant);
+                    case Option.None<ImageVariant> none -> Mono.just(original(image));
+                });
+    }
+
+    /**
+     * Decodes the original, scales and encodes it, and stores the result.
+     * Runs on the variant pool.
+     * <p>
+     * The original's dimensions are read from its header first, and originals
+     * over {@code image.variants.max-pixels} are rejected before any pixel is
+     * decoded. Variants keeping the original width, i.e. format changes, are
+     * still bounded by {@code image.variants.max-dimension} on either axis.
+     * </p>
+     *
+     * @return the unsaved variant row, none if the original cannot be
+     *         decoded.
+     */
+    private Option<ImageVariant> render(Image image, int width, Format format, String objectKey)
+            throws Exception {
+        BufferedImage decoded;
+        try (var object = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(image.getObjectKey())
+                .build());
+                var input = ImageIO.createImageInputStream(object)) {
+            var readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return Option.none();
+            }
+            var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                var sourceWidth = reader.getWidth(0);
+                var sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxPixels) {
+                    throw ImageError.ImageValidationError.build("Image %s is %dx%d, over the %d pixel limit"
+                            .formatted(image.getUuid(), sourceWidth, sourceHeight, maxPixels));
+                }
+                var target = fit(sourceWidth, sourceHeight, width == 0 ? maxDimension : width, maxDimension);
+                // Decode at no more than twice the target size on either
+                // axis, the final scale smooths the rest
+                var step = Math.max(1, Math.min(
+                        sourceWidth / (target.width() * 2),
+                        sourceHeight / (target.height() * 2)));
+                var param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                decoded = scale(reader.read(0, param), target.width(), target.height(), format);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        var bytes = encode(decoded, format);
+        try (var stream = new ByteArrayInputStream(bytes)) {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectKey)
+                    .stream(stream, bytes.length, -1)
+                    .contentType(format.mimeType)
+                    .build());
+        }
+        return Option.some(ImageVariant.builder()
+                .imageId(image.getId())
+                .width(width)
+                .height(decoded.getHeight())
+                .format(format.formatName)
+                .objectKey(objectKey)
+                .mimeType(format.mimeType)
+                .size((long) bytes.length)
+                .build());
+    }
+
+    /**
+     * Scales a source size down, keeping its aspect ratio, to at most
+     * {@code maxWidth} wide and {@code maxHeight} high. Never scales up.
+     */
+    static Size fit(int sourceWidth, int sourceHeight, int maxWidth, int maxHeight) {
+        var ratio = Math.min(1.0, Math.min(
+                maxWidth / (double) sourceWidth,
+                maxHeight / (double) sourceHeight));
+        return new Size(
+                (int) Math.max(1, Math.round(sourceWidth * ratio)),
+                (int) Math.max(1, Math.round(sourceHeight * ratio)));
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, Format format) {
+        var target = new BufferedImage(width, height,
+                format.alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        var graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!format.alpha) {
+                // Transparent pixels would turn black
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image, Format format) throws IOException {
+        var writer = ImageIO.getImageWritersByFormatName(format.formatName).next();
+        var bytes = new ByteArrayOutputStream();
+        try (var output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            var param = writer.getDefaultWriteParam();
+            if (format == Format.JPEG) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Records a generated variant. Another node may have generated the same
+     * one concurrently, in which case its row is kept; both wrote the same
+     * object key.
+     */
+    private Mono<Void> record(ImageVariant variant) {
+        return template.getDatabaseClient()
+                .sql("""
+                        INSERT INTO image_variants (image_id, width, height, format, object_key, mime_type, size)
+                        VALUES (:imageId, :width, :height, :format, :objectKey, :mimeType, :size)
+                        ON CONFLICT (image_id, width, format) DO NOTHING
+                        """)
+                .bind("imageId", variant.getImageId())
+                .bind("width", variant.getWidth())
+                .bind("height", variant.getHeight())
+                .bind("format", variant.getFormat())
+                .bind("objectKey", variant.getObjectKey())
+                .bind("mimeType", variant.getMimeType())
+                .bind("size", variant.getSize())
+                .then();
+    }
+
+    @Override
+    public void destroy() {
+        workers.dispose();
+    }
+
+    record Size(int width, int height) {
+    }
+
+    /**
+     * @param width  {@code null} for the original width.
+     * @param format {@code null} for the original format.
+     */
+    private record VariantKey(UUID uuid, Integer width, Format format) {
+    }
+
+    /**
+     * The formats variants can be encoded to with the JDK's image writers.
+     */
+    private enum Format {
+        JPEG("jpeg", "jpg", "image/jpeg", false),
+        PNG("png", "png", "image/png", true);
+
+        final String formatName;
+        final String extension;
+        final String mimeType;
+        final boolean alpha;
+
+        Format(String formatName, String extension, String mimeType, boolean alpha) {
+            this.formatName = formatName;
+            this.extension = extension;
+            this.mimeType = mimeType;
+            this.alpha = alpha;
+        }
+
+        static Option<Format> parse(String name) {
+            return Option.fromOptional(Arrays.stream(values())
+                    .filter(format -> format.formatName.equalsIgnoreCase(name)
+                            || format.extension.equalsIgnoreCase(name))
+                    .findFirst());
+        }
+
+        static Option<Format> ofMimeType(String mimeType) {
+            return Option.fromOptional(Arrays.stream(values())
+                    .filter(format -> format.mimeType.equalsIgnoreCase(mimeType))
+                    .findFirst());
+        }
+    }
+}
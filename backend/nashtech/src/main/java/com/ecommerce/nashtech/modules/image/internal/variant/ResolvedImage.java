@@ -0,0 +1,14 @@
+package com.ecommerce.nashtech.modules.image.internal.variant;
+
+/**
+ * The stored object that answers an image request.
+ *
+ * @param objectKey The object to serve.
+ * @param mimeType  Its MIME type.
+ * @param etag      An entity tag that only changes with its content.
+ * @param immutable Whether this is the final answer to the request. A
+ *                  stand-in served while the variant cannot be generated
+ *                  must not be cached for good.
+ */
+public record ResolvedImage(String objectKey, String mimeType, String etag, boolean immutable) {
+}
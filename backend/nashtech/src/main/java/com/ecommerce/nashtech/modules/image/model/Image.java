@@ -50,4 +50,10 @@ public class Image {
     @Column("uploaded_at")
     Long uploadedAt;
 
+    @Column("content_hash")
+    String contentHash;
+
+    @Column("blob_hash")
+    String blobHash;
+
 }
@@ -0,0 +1,47 @@
+package com.ecommerce.nashtech.modules.image.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Table(name = "image_variants")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = lombok.AccessLevel.PRIVATE)
+@Builder
+public class ImageVariant {
+    @Id
+    @Column("id")
+    Long id;
+
+    @Column("image_id")
+    Long imageId;
+
+    @Column("width")
+    Integer width;
+
+    @Column("height")
+    Integer height;
+
+    @Column("format")
+    String format;
+
+    @Column("object_key")
+    String objectKey;
+
+    @Column("mime_type")
+    String mimeType;
+
+    @Column("size")
+    Long size;
+
+    @Column("created_at")
+    Long createdAt;
+}
@@ -1,50 +1,85 @@
 package com.ecommerce.nashtech.modules.image.service;
 
+import com.ecommerce.nashtech.modules.image.dto.PresignedDownloadDto;
+import com.ecommerce.nashtech.modules.image.dto.PresignedUploadDto;
 import com.ecommerce.nashtech.modules.image.error.ImageError;
+import com.ecommerce.nashtech.modules.image.event.ImageUploadedEvent;
+import com.ecommerce.nashtech.modules.image.internal.blob.ImageBlobStore;
+import com.ecommerce.nashtech.modules.image.internal.cache.ImageDiskCache;
+import com.ecommerce.nashtech.modules.image.internal.delivery.ImageContent;
+import com.ecommerce.nashtech.modules.image.internal.delivery.ImageDelivery;
+import com.ecommerce.nashtech.modules.image.internal.presign.ImagePresigner;
+import com.ecommerce.nashtech.modules.image.internal.presign.PendingUploads;
 import com.ecommerce.nashtech.modules.image.internal.repository.ImageRepository;
+import com.ecommerce.nashtech.modules.image.internal.upload.StreamingImageUploader;
+import com.ecommerce.nashtech.modules.image.internal.upload.UploadedContent;
+import com.ecommerce.nashtech.modules.image.internal.variant.ImageVariants;
 import com.ecommerce.nashtech.modules.image.model.Image;
 import com.ecommerce.nashtech.shared.types.Option;
+import com.ecommerce.nashtech.shared.util.SingleFlight;
 
 import io.minio.GetObjectArgs;
 import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.AccessLevel;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.unit.DataSize;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Slf4j
 @RequiredArgsConstructor
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 @Service
 public class ImageService {
+    private static final int BATCH_SIZE = 500;
+
     ImageRepository imageRepo;
     MinioClient minioClient;
+    StreamingImageUploader uploader;
+    ImageVariants imageVariants;
+    ImageDiskCache diskCache;
+    ImageDelivery delivery;
+    ImagePresigner presigner;
+    PendingUploads pendingUploads;
+    ImageBlobStore blobStore;
+    ApplicationEventPublisher events;
+    TransactionalOperator txOperator;
     @Value("${minio.bucket.name}")
     @NonFinal
     String bucketName;
-    DataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
-    int BUFFER_SIZE = 8192;
+    @Value("${image.presign.max-size:20MB}")
+    @NonFinal
+    DataSize maxUploadSize;
+    SingleFlight<UUID, Image> metadataFlights = new SingleFlight<>();
+    SingleFlight<UUID, Image> completions = new SingleFlight<>();
+    SingleFlight<String, ImageContent> cacheFills = new SingleFlight<>();
 
     public Mono<Image> uploadImage(FilePart filePart, String altText) {
         return processAndSave(filePart, altText);
@@ -75,110 +110,277 @@ public class ImageService {
                 });
     }
 
-    public Flux<DataBuffer> getImage(String objectKey) {
-        return Mono.fromCallable(() -> minioClient.getObject(
-                GetObjectArgs.builder()
+    /**
+     * Serves an image, or the variant closest to the requested width and
+     * format, by UUID. The content never changes under its URL, except when
+     * the original stands in for a variant that could not be generated yet.
+     */
+    public Mono<Void> serve(ServerWebExchange exchange, UUID uuid, Integer width, String format) {
+        return imageVariants.resolve(uuid, width, format)
+                .flatMap(image -> write(exchange, image.objectKey(), image.etag(),
+                        content -> delivery.write(exchange, content, image.mimeType(), image.etag(), image.immutable())));
+    }
+
+    /**
+     * Serves an object by key. Keyed objects can be overwritten, so clients
+     * must revalidate, and the local copy is keyed by the object's current
+     * entity tag.
+     */
+    public Mono<Void> serve(ServerWebExchange exchange, String objectKey) {
+        return stat(objectKey)
+                .flatMap(stat -> write(exchange, objectKey, stat.etag(),
+                        content -> delivery.write(exchange, content, stat.contentType(), stat.etag(), false)));
+    }
+
+    /**
+     * Writes an object from the local disk cache, filling the cache on a
+     * miss. A cached file deleted before it could be read, by eviction or by
+     * hand, is dropped and the object is read from MinIO instead.
+     *
+     * @param version Changes whenever the object's content does.
+     */
+    private Mono<Void> write(
+            ServerWebExchange exchange,
+            String objectKey,
+            String version,
+            Function<ImageContent, Mono<Void>> writer) {
+        var cacheKey = objectKey + "#" + version;
+        return content(objectKey, cacheKey)
+                .flatMap(content -> writer.apply(content)
+                        .onErrorResume(NoSuchFileException.class, e -> {
+                            diskCache.evict(cacheKey);
+                            if (exchange.getResponse().isCommitted()) {
+                                return Mono.error(e);
+                            }
+                            log.warn("Cached copy of {} is gone, reading it from storage", objectKey);
+                            return writer.apply(new ImageContent.Remote(objectKey, content.length()));
+                        }));
+    }
+
+    /**
+     * Looks an object up in the local disk cache, filling the cache on a
+     * miss.
+     */
+    private Mono<ImageContent> content(String objectKey, String cacheKey) {
+        return Mono.defer(() -> {
+            var cached = diskCache.lookup(cacheKey);
+            if (cached.isSome()) {
+                return Mono.just(cached.unwrap());
+            }
+            return cacheFills.execute(cacheKey, () -> Mono.fromCallable(() -> fillCache(objectKey, cacheKey))
+                    .subscribeOn(Schedulers.boundedElastic()));
+        });
+    }
+
+    /**
+     * @return the cached copy of the object, or a remote reference if it is
+     *         too large to cache, in which case every request reads it from
+     *         MinIO.
+     */
+    private ImageContent fillCache(String objectKey, String cacheKey) throws Exception {
+        try (var object = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectKey)
+                .build())) {
+            var length = Option.fromNullable(object.headers().get(HttpHeaders.CONTENT_LENGTH))
+                    .map(Long::parseLong)
+                    .unwrapOr(-1L);
+            if (!diskCache.accepts(length)) {
+                return new ImageContent.Remote(objectKey, length);
+            }
+            return new ImageContent.Cached(diskCache.store(cacheKey, object), length);
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw ImageError.ImageNotFoundError.build(Option.some(objectKey));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reserves a uuid for an image the client posts straight into storage,
+     * records the upload as pending and signs the policy to post it with.
+     */
+    public Mono<PresignedUploadDto> createUpload() {
+        UUID uuid = UUID.randomUUID();
+        String objectKey = uuid.toString();
+        return presigner.upload(objectKey)
+                .flatMap(post -> pendingUploads.issue(uuid, objectKey, post.expiresAt())
+                        .thenReturn(new PresignedUploadDto(uuid, post.url(), post.fields(), post.expiresAt())));
+    }
+
+    /**
+     * Records an image posted with a policy from {@link #createUpload}. Its
+     * format and dimensions are probed afterwards, in the background.
+     * Completing the same upload again returns the saved image; uploads that
+     * were never issued or have expired are not found.
+     */
+    public Mono<Image> completeUpload(UUID uuid, String altText) {
+        return completions.execute(uuid, () -> imageRepo.findByUuid(uuid)
+                .switchIfEmpty(Mono.defer(() -> pendingUploads.consume(uuid)
+                        .switchIfEmpty(Mono.error(ImageError.ImageNotFoundError.build(Option.some(uuid.toString()))))
+                        .flatMap(objectKey -> stat(objectKey)
+                                .flatMap(stat -> {
+                                    var limit = maxUploadSize.toBytes();
+                                    if (stat.size() > limit) {
+                                        return remove(objectKey)
+                                                .then(Mono.<Image>error(ImageError.ImageSizeLimitExceededError
+                                                        .build(stat.size(), limit)));
+                                    }
+                                    return imageRepo.save(Image.builder()
+                                            .uuid(uuid)
+                                            .name(uuid.toString())
+                                            .alt(altText)
+                                            .objectKey(objectKey)
+                                            .mimeType(Option.fromNullable(stat.contentType())
+                                                    .unwrapOr("application/octet-stream"))
+                                            .size(stat.size())
+                                            .width(0)
+                                            .height(0)
+                                            .uploadedAt(System.currentTimeMillis())
+                                            .build());
+                                }))
+                        .as(txOperator::transactional)
+                        .doOnSuccess(saved -> {
+                            log.info("Completed direct upload of image {} with key {}", saved.getId(), saved.getObjectKey());
+                            events.publishEvent(new ImageUploadedEvent(uuid));
+                        }))));
+    }
+
+    /**
+     * Signs a URL to get an image, or the variant closest to the requested
+     * width and format, straight from storage.
+     */
+    public Mono<PresignedDownloadDto> createDownload(UUID uuid, Integer width, String format) {
+        return imageVariants.resolve(uuid, width, format)
+                .flatMap(image -> presigner.download(image.objectKey()))
+                .map(url -> new PresignedDownloadDto(url.url(), url.expiresAt()));
+    }
+
+    private Mono<StatObjectResponse> stat(String objectKey) {
+        return Mono.fromCallable(() -> {
+            try {
+                return minioClient.statObject(StatObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectKey)
+                        .build());
+            } catch (ErrorResponseException e) {
+                if ("NoSuchKey".equals(e.errorResponse().code())) {
+                    throw ImageError.ImageNotFoundError.build(Option.some(objectKey));
+                }
+                throw e;
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Void> remove(String objectKey) {
+        return Mono.<Void>fromRunnable(() -> {
+            try {
+                minioClient.removeObject(RemoveObjectArgs.builder()
                         .bucket(bucketName)
                         .object(objectKey)
-                        .build()))
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMapMany(inputStream -> DataBufferUtils.readInputStream(() -> inputStream, dataBufferFactory,
-                        BUFFER_SIZE));
+                        .build());
+            } catch (Exception e) {
+                throw ImageError.ImageDeletionError.build(Option.some(objectKey));
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
     }
 
     public Mono<Image> getImageMetadata(UUID uuid) {
-        return imageRepo.findByUuid(uuid)
-                .switchIfEmpty(Mono.error(new NoSuchElementException("Image metadata not found for UUID: " + uuid)));
+        return metadataFlights.execute(uuid, () -> imageRepo.findByUuid(uuid)
+                .switchIfEmpty(Mono.error(new NoSuchElementException("Image metadata not found for UUID: " + uuid))));
     }
 
+    /**
+     * Looks the images up {@value #BATCH_SIZE} uuids per query. The output
+     * follows the order of the input, and uuids without an image are
+     * skipped.
+     */
     public Flux<Image> getImageMetadata(Flux<UUID> uuids) {
-        return uuids.flatMap(this::getImageMetadata);
+        return uuids.buffer(BATCH_SIZE).concatMap(this::getImageMetadata);
     }
 
     /**
-     * Core process: read bytes, upload to MinIO, extract dimensions, save metadata.
+     * Looks the images up in one query. The output follows the order of
+     * the input, and uuids without an image are skipped.
      */
-    private Mono<Image> processAndSave(FilePart filePart, String altText) {
+    public Flux<Image> getImageMetadata(List<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return Flux.empty();
+        }
+        return imageRepo.findAllByUuids(uuids.stream().distinct().toArray(UUID[]::new))
+                .collectMap(Image::getUuid)
+                .flatMapIterable(images -> uuids.stream()
+                        .map(images::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
 
-        String mimeType = filePart.headers().getContentType() != null
-                ? filePart.headers().getContentType().toString()
-                : "application/octet-stream";
+    /**
+     * @return the images linked to the product, in upload order, read with a
+     *         single join.
+     */
+    public Flux<Image> getProductImages(UUID productUuid) {
+        return imageRepo.findAllByProductUuid(productUuid);
+    }
 
+    /**
+     * Core process: stream the bytes to a staging key, measuring them on the
+     * way, then store them as a shared blob and save the metadata. Content
+     * that is already stored is not stored again.
+     */
+    private Mono<Image> processAndSave(FilePart filePart, String altText) {
         UUID uuid = UUID.randomUUID();
-        String originalFilename = uuid.toString();
-        String objectKey = uuid.toString();
-        return DataBufferUtils.join(filePart.content())
-                .flatMap(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    return Mono.fromCallable(
-                            () -> handleUploadAndMetadata(bytes, originalFilename, mimeType, altText, uuid, objectKey))
-                            .subscribeOn(Schedulers.boundedElastic());
-                })
-                .flatMap(imageRepo::save)
+        String declaredType = declaredType(filePart);
+        return Mono.usingWhen(
+                Mono.just(blobStore.stagingKey(uuid)),
+                stagedKey -> uploader.upload(filePart.content(), stagedKey, declaredType)
+                        .flatMap(content -> blobStore.acquire(content, stagedKey)
+                                .flatMap(objectKey -> imageRepo.save(toImage(uuid, altText, objectKey, declaredType, content)
+                                        .blobHash(content.sha256())
+                                        .build()))
+                                .as(txOperator::transactional)),
+                blobStore::discard,
+                (stagedKey, err) -> blobStore.discard(stagedKey),
+                blobStore::discard)
                 .doOnSuccess(saved -> log.info("Uploaded image {} with key {}", saved.getId(), saved.getObjectKey()));
     }
 
     private Mono<Image> processAndSave(FilePart filePart, String altText, String objectKey) {
+        // The upload may overwrite an earlier object under the same key
+        UUID uuid = UUID.randomUUID();
+        String declaredType = declaredType(filePart);
+        return uploader.upload(filePart.content(), objectKey, declaredType)
+                .flatMap(content -> imageRepo.save(toImage(uuid, altText, objectKey, declaredType, content).build()))
+                .doOnSuccess(saved -> log.info("Uploaded image {} with key {}", saved.getId(), saved.getObjectKey()));
+    }
 
-        String mimeType = filePart.headers().getContentType() != null
+    private static String declaredType(FilePart filePart) {
+        return filePart.headers().getContentType() != null
                 ? filePart.headers().getContentType().toString()
                 : "application/octet-stream";
-
-        UUID uuid = UUID.randomUUID();
-        String originalFilename = uuid.toString();
-        return DataBufferUtils.join(filePart.content())
-                .flatMap(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    return Mono.fromCallable(
-                            () -> handleUploadAndMetadata(bytes, originalFilename, mimeType, altText, uuid, objectKey))
-                            .subscribeOn(Schedulers.boundedElastic());
-                })
-                .flatMap(imageRepo::save)
-                .doOnSuccess(saved -> log.info("Uploaded image {} with key {}", saved.getId(), saved.getObjectKey()));
     }
 
-    private Image handleUploadAndMetadata(
-            byte[] bytes,
-            String originalFilename,
-            String mimeType,
-            String altText,
+    /**
+     * The stored object keeps the declared type, the metadata gets the
+     * sniffed one.
+     */
+    private static Image.ImageBuilder toImage(
             UUID uuid,
-            String objectKey) throws Exception {
-
-        System.out.println("Uploading image to MinIO: " + objectKey);
-        try (InputStream uploadStream = new ByteArrayInputStream(bytes)) {
-            minioClient.putObject(PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(objectKey)
-                    .stream(uploadStream, bytes.length, -1)
-                    .contentType(mimeType)
-                    .build());
-        }
-        System.out.println("Image uploaded to MinIO: " + objectKey);
-
-        int width = 0, height = 0;
-        try (InputStream imageStream = new ByteArrayInputStream(bytes)) {
-            BufferedImage bufferedImage = ImageIO.read(imageStream);
-            if (bufferedImage != null) {
-                width = bufferedImage.getWidth();
-                height = bufferedImage.getHeight();
-            }
-        }
-
+            String altText,
+            String objectKey,
+            String declaredType,
+            UploadedContent content) {
         return Image.builder()
                 .uuid(uuid)
-                .name(originalFilename)
+                .name(uuid.toString())
                 .alt(altText)
                 .objectKey(objectKey)
-                .mimeType(mimeType)
-                .size((long) bytes.length)
-                .width(width)
-                .height(height)
-                .uploadedAt(System.currentTimeMillis())
-                .build();
+                .mimeType(content.mimeType().unwrapOr(declaredType))
+                .size(content.size())
+                .width(content.width())
+                .height(content.height())
+                .contentHash(content.sha256())
+                .uploadedAt(System.currentTimeMillis());
     }
 }
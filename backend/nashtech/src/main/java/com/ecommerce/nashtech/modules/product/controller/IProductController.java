@@ -7,11 +7,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ServerWebExchange;
 
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 
@@ -25,22 +28,24 @@ public interface IProductController {
         @Operation(summary = "Retrieve product by UUID", description = "Retrieve product information by UUID")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Product retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessfulResponse.WithData.class))),
+                        @ApiResponse(responseCode = "304", description = "Product not modified since the given ETag or date"),
                         @ApiResponse(responseCode = "400", description = "Invalid UUID format", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
                         @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
                         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
         })
-        Mono<ResponseEntity<String>> getProductByUuid(
+        Mono<ResponseEntity<BaseResponse>> getProductByUuid(
                         ServerWebExchange exchange,
                         @Parameter(description = "UUID of the product to retrieve", required = true, schema = @Schema(type = "string", format = "uuid", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")) UUID uuid);
 
         @Operation(summary = "Retrieve product by ID", description = "Retrieve product information by ID")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Product retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessfulResponse.WithData.class))),
+                        @ApiResponse(responseCode = "304", description = "Product not modified since the given ETag or date"),
                         @ApiResponse(responseCode = "400", description = "Invalid ID format", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
                         @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
                         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
         })
-        Mono<ResponseEntity<String>> getProductById(
+        Mono<ResponseEntity<BaseResponse>> getProductById(
                         ServerWebExchange exchange,
                         @Parameter(description = "ID of the product to retrieve", required = true, schema = @Schema(type = "integer", format = "int64", example = "123")) Long id);
 
@@ -51,11 +56,11 @@ public interface IProductController {
                         @ApiResponse(responseCode = "404", description = "Brand not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
                         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
         })
-        Mono<ResponseEntity<String>> getProductsByBrandId(
+        Mono<ResponseEntity<BaseResponse>> getProductsByBrandId(
                         ServerWebExchange exchange,
                         @PathVariable Long brandId,
-                        @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "10") int size);
+                        @ParameterObject Pageable pageable,
+                        @Parameter(description = "Opaque cursor from the previous page's nextCursor; send it empty to start keyset pagination") @RequestParam(required = false) String after);
 
         @Operation(summary = "Retrieve products by category ID", description = "Retrieve products associated with a specific category ID")
         @ApiResponses(value = {
@@ -64,9 +69,9 @@ public interface IProductController {
                         @ApiResponse(responseCode = "404", description = "Category not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
                         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
         })
-        Mono<ResponseEntity<String>> getProductsByCategoryId(
+        Mono<ResponseEntity<BaseResponse>> getProductsByCategoryId(
                         ServerWebExchange exchange,
                         @PathVariable Long categoryId,
-                        @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "10") int size);
+                        @ParameterObject Pageable pageable,
+                        @Parameter(description = "Opaque cursor from the previous page's nextCursor; send it empty to start keyset pagination") @RequestParam(required = false) String after);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,12 +22,20 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 
 import com.ecommerce.nashtech.modules.image.model.Image;
+import com.ecommerce.nashtech.modules.product.dto.FullProductDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductImportProgressDto;
 import com.ecommerce.nashtech.modules.product.dto.UpdateProductDto;
 import com.ecommerce.nashtech.modules.product.error.ProductError;
 import com.ecommerce.nashtech.modules.product.service.ProductService;
+import com.ecommerce.nashtech.shared.config.MaxPageSize;
+import com.ecommerce.nashtech.shared.config.Sortable;
 import com.ecommerce.nashtech.shared.enums.ProductFinder;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
+import com.ecommerce.nashtech.shared.response.ConditionalResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
+import com.ecommerce.nashtech.shared.response.StreamingResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
+import com.ecommerce.nashtech.shared.types.CursorPage;
 import com.ecommerce.nashtech.shared.util.Router;
 
 import lombok.RequiredArgsConstructor;
@@ -47,12 +56,14 @@ public class ProductController implements IProductController {
 
     @Override
     @GetMapping("/uuid/{uuid}")
-    public Mono<ResponseEntity<String>> getProductByUuid(
+    public Mono<ResponseEntity<BaseResponse>> getProductByUuid(
             ServerWebExchange exchange,
             @PathVariable UUID uuid) {
         var instance = router.getURI("uuid", uuid);
         var finder = new ProductFinder.ByUuid(uuid);
-        return productService
+        var version = productService.findVersion(finder)
+                .map(updatedAt -> ConditionalResponse.of(updatedAt, finder));
+        return ConditionalResponse.respond(exchange, version, () -> productService
                 .getFullProduct(finder)
                 .map(result -> SuccessfulResponse.WithData.builder()
                         .item(result)
@@ -60,17 +71,19 @@ public class ProductController implements IProductController {
                         .build()
                         .asResponse())
                 .onErrorResume(ProductError.class,
-                        e -> ErrorResponse.build(e, instance).asMonoResponse());
+                        e -> ErrorResponse.build(e, instance).asMonoResponse()));
     }
 
     @Override
     @GetMapping("/id/{id}")
-    public Mono<ResponseEntity<String>> getProductById(
+    public Mono<ResponseEntity<BaseResponse>> getProductById(
             ServerWebExchange exchange,
             @PathVariable Long id) {
         var instance = router.getURI("id", id);
         var finder = new ProductFinder.ById(id);
-        return productService
+        var version = productService.findVersion(finder)
+                .map(updatedAt -> ConditionalResponse.of(updatedAt, finder));
+        return ConditionalResponse.respond(exchange, version, () -> productService
                 .getFullProduct(finder)
                 .map(result -> SuccessfulResponse.WithData.builder()
                         .item(result)
@@ -78,18 +91,25 @@ public class ProductController implements IProductController {
                         .build()
                         .asResponse())
                 .onErrorResume(ProductError.class,
-                        e -> ErrorResponse.build(e, instance).asMonoResponse());
+                        e -> ErrorResponse.build(e, instance).asMonoResponse()));
     }
 
     @Override
     @GetMapping("/brand/{brandId}")
-    public Mono<ResponseEntity<String>> getProductsByBrandId(
+    public Mono<ResponseEntity<BaseResponse>> getProductsByBrandId(
             ServerWebExchange exchange,
             @PathVariable Long brandId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @Sortable({ "id", "createdAt" }) Pageable pageable,
+            @RequestParam(required = false) String after) {
         var instance = router.getURI("brandId", brandId);
-        Pageable pageable = PageRequest.of(page, size);
+        if (after != null) {
+            var size = pageable.getPageSize();
+            return CursorPage.join(productService.findAllByBrand(after, size, brandId), size)
+                    .zipWith(productService.countByBrand(brandId))
+                    .map(tuple -> asCursorResponse(tuple.getT1(), size, tuple.getT2(), instance))
+                    .onErrorResume(ProductError.class,
+                            e -> ErrorResponse.build(e, instance).asMonoResponse());
+        }
         return productService
                 .findAllByBrand(pageable, brandId)
                 .collectList()
@@ -104,13 +124,20 @@ public class ProductController implements IProductController {
 
     @Override
     @GetMapping("/category/{categoryId}")
-    public Mono<ResponseEntity<String>> getProductsByCategoryId(
+    public Mono<ResponseEntity<BaseResponse>> getProductsByCategoryId(
             ServerWebExchange exchange,
             @PathVariable Long categoryId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @Sortable("id") Pageable pageable,
+            @RequestParam(required = false) String after) {
         var instance = router.getURI("categoryId", categoryId);
-        Pageable pageable = PageRequest.of(page, size);
+        if (after != null) {
+            var size = pageable.getPageSize();
+            return CursorPage.join(productService.findAllByCategory(after, size, categoryId), size)
+                    .zipWith(productService.countByCategory(categoryId))
+                    .map(tuple -> asCursorResponse(tuple.getT1(), size, tuple.getT2(), instance))
+                    .onErrorResume(ProductError.class,
+                            e -> ErrorResponse.build(e, instance).asMonoResponse());
+        }
         return productService
                 .findAllByCategory(pageable, categoryId)
                 .collectList()
@@ -122,8 +149,38 @@ public class ProductController implements IProductController {
                         e -> ErrorResponse.build(e, instance).asMonoResponse());
     }
 
+    @GetMapping(value = "/brand/{brandId}", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BaseResponse> streamProductsByBrandId(
+            @PathVariable Long brandId,
+            @MaxPageSize @Sortable({ "id", "createdAt" }) Pageable pageable,
+            @RequestParam(required = false) String after) {
+        var instance = router.getURI("brandId", brandId);
+        if (after != null) {
+            var size = pageable.getPageSize();
+            return StreamingResponse.of(productService.findAllByBrand(after, size, brandId),
+                    productService.countByBrand(brandId), size, instance);
+        }
+        return StreamingResponse.of(productService.findAllByBrand(pageable, brandId),
+                productService.countByBrand(brandId), pageable, instance);
+    }
+
+    @GetMapping(value = "/category/{categoryId}", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BaseResponse> streamProductsByCategoryId(
+            @PathVariable Long categoryId,
+            @MaxPageSize @Sortable("id") Pageable pageable,
+            @RequestParam(required = false) String after) {
+        var instance = router.getURI("categoryId", categoryId);
+        if (after != null) {
+            var size = pageable.getPageSize();
+            return StreamingResponse.of(productService.findAllByCategory(after, size, categoryId),
+                    productService.countByCategory(categoryId), size, instance);
+        }
+        return StreamingResponse.of(productService.findAllByCategory(pageable, categoryId),
+                productService.countByCategory(categoryId), pageable, instance);
+    }
+
     @PostMapping(value = "{productUuid}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public Mono<ResponseEntity<String>> uploadProductImages(
+    public Mono<ResponseEntity<BaseResponse>> uploadProductImages(
             ServerWebExchange exchange,
             @RequestPart("files") Flux<FilePart> fileParts,
             @PathVariable UUID productUuid,
@@ -142,7 +199,7 @@ public class ProductController implements IProductController {
     }
 
     @GetMapping(value = "{productUuid}/image/metadata", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<String>> getProductImageMetadata(
+    public Mono<ResponseEntity<BaseResponse>> getProductImageMetadata(
             ServerWebExchange exchange,
             @PathVariable UUID productUuid) {
         var instance = router.getURI("image", "metadata", productUuid);
@@ -158,14 +215,37 @@ public class ProductController implements IProductController {
 
     }
 
+    @GetMapping(value = "{productUuid}/image/metadata", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BaseResponse> streamProductImageMetadata(@PathVariable UUID productUuid) {
+        var instance = router.getURI("image", "metadata", productUuid);
+        return StreamingResponse.of(productService.getMetadataOfAllImages(productUuid), instance);
+    }
+
     @GetMapping("/search")
-    public Mono<ResponseEntity<String>> searchProductsByName(
+    public Mono<ResponseEntity<BaseResponse>> searchProductsByName(
             @RequestParam("name") String searchTerm,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @Sortable({ "id", "name", "price", "createdAt" }) Pageable pageable,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean ranked) {
 
         var instance = router.getURI("search", searchTerm);
-        Pageable pageable = PageRequest.of(page, size);
+        if (ranked) {
+            // Ranked results are ordered by relevance, so the sort is dropped
+            var unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            return productService.searchRanked(searchTerm, unsorted)
+                    .map(productPage -> SuccessfulResponse.WithPageableData.of(productPage, instance)
+                            .asResponse())
+                    .onErrorResume(ProductError.class,
+                            e -> ErrorResponse.build(e, instance).asMonoResponse());
+        }
+        if (after != null) {
+            var size = pageable.getPageSize();
+            return CursorPage.join(productService.findProducts(searchTerm, after, size), size)
+                    .zipWith(productService.countByName(searchTerm))
+                    .map(tuple -> asCursorResponse(tuple.getT1(), size, tuple.getT2(), instance))
+                    .onErrorResume(ProductError.class,
+                            e -> ErrorResponse.build(e, instance).asMonoResponse());
+        }
         return productService.findProducts(searchTerm, pageable)
                 .collectList()
                 .zipWith(productService.countByName(searchTerm))
@@ -177,8 +257,76 @@ public class ProductController implements IProductController {
 
     }
 
+    /**
+     * Streamed variant of {@link #searchProductsByName}. Ranked search
+     * computes its page and total in one query, so it is not offered here.
+     */
+    @GetMapping(value = "/search", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BaseResponse> streamProductsByName(
+            @RequestParam("name") String searchTerm,
+            @MaxPageSize @Sortable({ "id", "name", "price", "createdAt" }) Pageable pageable,
+            @RequestParam(required = false) String after) {
+        var instance = router.getURI("search", searchTerm);
+        if (after != null) {
+            var size = pageable.getPageSize();
+            return StreamingResponse.of(productService.findProducts(searchTerm, after, size),
+                    productService.countByName(searchTerm), size, instance);
+        }
+        return StreamingResponse.of(productService.findProducts(searchTerm, pageable),
+                productService.countByName(searchTerm), pageable, instance);
+    }
+
+    @GetMapping("/filter")
+    public Mono<ResponseEntity<BaseResponse>> filterProducts(
+            @RequestParam MultiValueMap<String, String> params,
+            @Sortable("id") Pageable pageable) {
+        var instance = router.getURI("filter");
+        return productService.filter(params, pageable)
+                .map(result -> SuccessfulResponse.WithData.builder()
+                        .item(result)
+                        .instance(instance)
+                        .build()
+                        .asResponse())
+                .onErrorResume(ProductError.class,
+                        e -> ErrorResponse.build(e, instance).asMonoResponse());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<FullProductDto> exportProducts() {
+        return productService.exportCatalog();
+    }
+
+    @PostMapping(value = "/import", consumes = { "text/csv",
+            MediaType.APPLICATION_NDJSON_VALUE }, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductImportProgressDto> importProducts(ServerWebExchange exchange) {
+        var request = exchange.getRequest();
+        return productService.importCatalog(request.getBody(), request.getHeaders().getContentType());
+    }
+
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<BaseResponse>> suggestProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        var instance = router.getURI("suggest", query);
+        return SuccessfulResponse.WithData.builder()
+                .item(productService.suggest(query, limit))
+                .instance(instance)
+                .build()
+                .asMonoResponse();
+    }
+
+    @GetMapping("/cache/stats")
+    public Mono<ResponseEntity<BaseResponse>> getCacheStats() {
+        var instance = router.getURI("cache", "stats");
+        return SuccessfulResponse.WithData.builder()
+                .item(productService.cacheStats())
+                .instance(instance)
+                .build()
+                .asMonoResponse();
+    }
+
     @PatchMapping(value = "/uuid/{uuid}", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<String>> updateProduct(
+    public Mono<ResponseEntity<BaseResponse>> updateProduct(
             ServerWebExchange exchange,
             @PathVariable UUID uuid,
             @RequestBody UpdateProductDto updateProductDto) {
@@ -194,4 +342,11 @@ public class ProductController implements IProductController {
                 .onErrorResume(ProductError.class,
                         e -> ErrorResponse.build(e, instance).asMonoResponse());
     }
+
+    private <T> ResponseEntity<BaseResponse> asCursorResponse(CursorPage<T> cursorPage, int size, long total,
+            String instance) {
+        var page = new PageImpl<>(cursorPage.items(), PageRequest.of(0, size), total);
+        return SuccessfulResponse.WithPageableData.of(page, instance, cursorPage.nextToken())
+                .asResponse();
+    }
 }
@@ -0,0 +1,12 @@
+package com.ecommerce.nashtech.modules.product.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record FilteredProductsDto(
+        List<FullProductDto> items,
+        int page,
+        int size,
+        long totalItems,
+        Map<String, Map<String, Long>> facets) {
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.nashtech.modules.product.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record ImportProductDto(
+        UUID uuid,
+        String name,
+        String brand,
+        List<String> categories,
+        String description,
+        BigDecimal price,
+        Integer stockQuantity,
+        String type,
+        JsonNode specifications) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.nashtech.modules.product.dto;
+
+public record ProductCacheStatsDto(
+        Long size,
+        Long hitCount,
+        Long missCount,
+        Long evictionCount,
+        Double hitRate) {
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.nashtech.modules.product.dto;
+
+public record ProductImportErrorDto(
+        Long line,
+        String message) {
+}
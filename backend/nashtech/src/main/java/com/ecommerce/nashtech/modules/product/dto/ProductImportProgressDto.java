@@ -0,0 +1,11 @@
+package com.ecommerce.nashtech.modules.product.dto;
+
+import java.util.List;
+
+public record ProductImportProgressDto(
+        Integer batch,
+        Long processed,
+        Long imported,
+        Long failed,
+        List<ProductImportErrorDto> errors) {
+}
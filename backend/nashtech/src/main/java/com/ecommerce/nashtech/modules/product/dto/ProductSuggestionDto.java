@@ -0,0 +1,7 @@
+package com.ecommerce.nashtech.modules.product.dto;
+
+public record ProductSuggestionDto(
+        String type,
+        String label,
+        String key) {
+}
@@ -0,0 +1,4 @@
+package com.ecommerce.nashtech.modules.product.dto;
+
+public record StockItemDto(Long productId, Integer quantity) {
+}
@@ -1,10 +1,18 @@
 package com.ecommerce.nashtech.modules.product.error;
 
+import java.util.Collection;
+import java.util.UUID;
+
 import com.ecommerce.nashtech.shared.error.BaseError;
 import com.ecommerce.nashtech.shared.types.Option;
 
 public sealed abstract class ProductError extends BaseError permits
-        ProductError.ProductNotFoundError {
+        ProductError.ProductNotFoundError,
+        ProductError.InvalidCursorError,
+        ProductError.InvalidFilterError,
+        ProductError.InsufficientStockError,
+        ProductError.ReservationNotFoundError,
+        ProductError.InvalidQuantityError {
 
     protected ProductError(String message, String code) {
         super(message, code);
@@ -26,4 +34,64 @@ public sealed abstract class ProductError extends BaseError permits
             return new ProductNotFoundError(identifier);
         }
     }
+
+    public static final class InvalidCursorError extends ProductError {
+        private static final String CODE = "PRODUCT_101";
+
+        private InvalidCursorError(String cursor) {
+            super("Invalid pagination cursor: " + cursor, CODE);
+        }
+
+        public static InvalidCursorError build(String cursor) {
+            return new InvalidCursorError(cursor);
+        }
+    }
+
+    public static final class InvalidFilterError extends ProductError {
+        private static final String CODE = "PRODUCT_102";
+
+        private InvalidFilterError(String parameter, String value) {
+            super("Invalid filter " + parameter + ": " + value, CODE);
+        }
+
+        public static InvalidFilterError build(String parameter, String value) {
+            return new InvalidFilterError(parameter, value);
+        }
+    }
+
+    public static final class InsufficientStockError extends ProductError {
+        private static final String CODE = "PRODUCT_103";
+
+        private InsufficientStockError(Collection<Long> productIds) {
+            super("Insufficient stock for products: " + productIds, CODE);
+        }
+
+        public static InsufficientStockError build(Collection<Long> productIds) {
+            return new InsufficientStockError(productIds);
+        }
+    }
+
+    public static final class ReservationNotFoundError extends ProductError {
+        private static final String CODE = "PRODUCT_104";
+
+        private ReservationNotFoundError(UUID reservationId) {
+            super("Stock reservation not found or expired: " + reservationId, CODE);
+        }
+
+        public static ReservationNotFoundError build(UUID reservationId) {
+            return new ReservationNotFoundError(reservationId);
+        }
+    }
+
+    public static final class InvalidQuantityError extends ProductError {
+        private static final String CODE = "PRODUCT_105";
+
+        private InvalidQuantityError(Long productId, Integer quantity) {
+            super("Invalid quantity for product " + productId + ": " + quantity, CODE);
+        }
+
+        public static InvalidQuantityError build(Long productId, Integer quantity) {
+            return new InvalidQuantityError(productId, quantity);
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.ecommerce.nashtech.modules.product.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after a committed write that changes what a product shows: its
+ * own columns, its category links or its image links.
+ *
+ * @param productUuids The uuids of the changed products.
+ */
+public record ProductChangedEvent(Collection<UUID> productUuids) {
+
+    public static ProductChangedEvent of(UUID productUuid) {
+        return new ProductChangedEvent(List.of(productUuid));
+    }
+}
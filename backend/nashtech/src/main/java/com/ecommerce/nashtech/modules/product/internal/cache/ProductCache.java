@@ -0,0 +1,99 @@
+package com.ecommerce.nashtech.modules.product.internal.cache;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.product.dto.FullProductDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductCacheStatsDto;
+import com.ecommerce.nashtech.shared.enums.ProductFinder;
+import com.ecommerce.nashtech.shared.types.Option;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded in-process cache of assembled {@link FullProductDto}s, keyed by the
+ * {@link ProductFinder} used to look them up.
+ * <p>
+ * Entries expire after a fixed TTL and are evicted by size. Writes must call
+ * one of the {@code invalidate} methods after they commit. A load that was
+ * started before its product was invalidated is not stored, so a slow read
+ * cannot put a stale product back into the cache; loads of other products
+ * are unaffected.
+ * </p>
+ */
+@Component
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ProductCache {
+    Cache<ProductFinder, FullProductDto> cache;
+    // One token per load in flight. Invalidating a finder drops its token,
+    // and a load only stores its result while its token is still there.
+    ConcurrentHashMap<ProductFinder, Object> loads = new ConcurrentHashMap<>();
+
+    public ProductCache(
+            @Value("${product.cache.maximum-size:10000}") long maximumSize,
+            @Value("${product.cache.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Mono<FullProductDto> get(ProductFinder finder, Supplier<Mono<FullProductDto>> loader) {
+        return Mono.defer(() -> {
+            var cached = cache.getIfPresent(finder);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            var token = new Object();
+            loads.put(finder, token);
+            return loader.get()
+                    .doOnNext(product -> loads.computeIfPresent(finder, (key, current) -> {
+                        if (current != token) {
+                            return current;
+                        }
+                        cache.put(key, product);
+                        return null;
+                    }))
+                    .doFinally(signal -> loads.remove(finder, token));
+        });
+    }
+
+    /**
+     * @return the cached product, without counting as a hit or miss.
+     */
+    public Option<FullProductDto> peek(ProductFinder finder) {
+        return Option.fromNullable(cache.asMap().get(finder));
+    }
+
+    public void invalidate(long id, UUID uuid) {
+        invalidate(new ProductFinder.ById(id));
+        invalidate(new ProductFinder.ByUuid(uuid));
+    }
+
+    private void invalidate(ProductFinder finder) {
+        // A load storing its result concurrently either finishes before the
+        // token is dropped, and is invalidated below, or finds it gone.
+        loads.remove(finder);
+        cache.invalidate(finder);
+    }
+
+    public ProductCacheStatsDto stats() {
+        var stats = cache.stats();
+        return new ProductCacheStatsDto(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate());
+    }
+}
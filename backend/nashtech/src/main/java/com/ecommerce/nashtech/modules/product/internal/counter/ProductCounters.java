@@ -0,0 +1,167 @@
+package com.ecommerce.nashtech.modules.product.internal.counter;
+
+import java.util.List;
+
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.ecommerce.nashtech.modules.product.dto.ProductBrandCountDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductCategoryCountDto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the live product counts kept in {@code brand_product_counts} and
+ * {@code category_product_counts}.
+ * <p>
+ * The counters are maintained by triggers on {@code products} and
+ * {@code product_category} (see V9), so every write path, including bulk
+ * imports and manual SQL, keeps them exact. {@link #reconcile()} recomputes
+ * them from the base tables on a schedule and fixes any drift.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ProductCounters {
+    R2dbcEntityTemplate template;
+    TransactionalOperator txOperator;
+
+    public Mono<Long> countByBrand(Long brandId) {
+        return template.getDatabaseClient()
+                .sql("SELECT product_count FROM brand_product_counts WHERE brand_id = :id")
+                .bind("id", brandId)
+                .map((row, metadata) -> row.get("product_count", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    public Flux<ProductBrandCountDto> countByBrandIds(List<Long> brandIds) {
+        if (brandIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return template.getDatabaseClient()
+                .sql("SELECT brand_id, product_count FROM brand_product_counts WHERE brand_id = ANY(:ids)")
+                .bind("ids", brandIds.toArray(new Long[0]))
+                .map((row, metadata) -> new ProductBrandCountDto(
+                        row.get("brand_id", Long.class),
+                        row.get("product_count", Long.class)))
+                .all();
+    }
+
+    public Mono<Long> countByCategory(Long categoryId) {
+        return template.getDatabaseClient()
+                .sql("SELECT product_count FROM category_product_counts WHERE category_id = :id")
+                .bind("id", categoryId)
+                .map((row, metadata) -> row.get("product_count", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    public Flux<ProductCategoryCountDto> countByCategoryIds(List<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT category_id, product_count
+                        FROM category_product_counts
+                        WHERE category_id = ANY(:ids)
+                        """)
+                .bind("ids", categoryIds.toArray(new Long[0]))
+                .map((row, metadata) -> new ProductCategoryCountDto(
+                        row.get("category_id", Long.class),
+                        row.get("product_count", Long.class)))
+                .all();
+    }
+
+    /**
+     * @return the time of the last change to the brand's counter, 0 if it
+     *         has none.
+     */
+    public Mono<Long> brandVersion(Long brandId) {
+        return template.getDatabaseClient()
+                .sql("SELECT updated_at FROM brand_product_counts WHERE brand_id = :id")
+                .bind("id", brandId)
+                .map((row, metadata) -> row.get("updated_at", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    /**
+     * @return the time of the last change to any brand counter.
+     */
+    public Mono<Long> brandsVersion() {
+        return latestVersion("brand_product_counts");
+    }
+
+    /**
+     * @return the time of the last change to any category counter.
+     */
+    public Mono<Long> categoriesVersion() {
+        return latestVersion("category_product_counts");
+    }
+
+    private Mono<Long> latestVersion(String table) {
+        return template.getDatabaseClient()
+                .sql("SELECT COALESCE(MAX(updated_at), 0) AS version FROM " + table)
+                .map((row, metadata) -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * Recomputes both counter tables and returns the number of corrected
+     * rows. The counter tables are locked against trigger writes for the
+     * duration, so a product written concurrently is counted exactly once.
+     */
+    @Scheduled(cron = "${product.counters.reconcile-cron:0 0 3 * * *}")
+    public Mono<Long> reconcile() {
+        var client = template.getDatabaseClient();
+        var lock = client
+                .sql("""
+                        LOCK TABLE brand_product_counts, category_product_counts
+                        IN SHARE ROW EXCLUSIVE MODE
+                        """)
+                .then();
+        var brands = client
+                .sql("""
+                        INSERT INTO brand_product_counts (brand_id, product_count)
+                        SELECT b.id, COUNT(p.id)
+                        FROM brands b
+                        LEFT JOIN products p ON p.brand_id = b.id AND p.is_deleted IS NOT TRUE
+                        GROUP BY b.id
+                        ON CONFLICT (brand_id) DO UPDATE
+                        SET product_count = EXCLUDED.product_count
+                        WHERE brand_product_counts.product_count <> EXCLUDED.product_count
+                        """)
+                .fetch()
+                .rowsUpdated();
+        var categories = client
+                .sql("""
+                        INSERT INTO category_product_counts (category_id, product_count)
+                        SELECT c.id, COUNT(p.id)
+                        FROM categories c
+                        LEFT JOIN product_category pc ON pc.category_id = c.id
+                        LEFT JOIN products p ON p.id = pc.product_id AND p.is_deleted IS NOT TRUE
+                        GROUP BY c.id
+                        ON CONFLICT (category_id) DO UPDATE
+                        SET product_count = EXCLUDED.product_count
+                        WHERE category_product_counts.product_count <> EXCLUDED.product_count
+                        """)
+                .fetch()
+                .rowsUpdated();
+        return lock
+                .then(brands)
+                .flatMap(fixedBrands -> categories.map(fixedCategories -> fixedBrands + fixedCategories))
+                .as(txOperator::transactional)
+                .doOnNext(fixed -> log.info("Product counters reconciled, {} rows corrected", fixed))
+                .doOnError(err -> log.error("Product counter reconciliation failed", err));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.nashtech.modules.product.internal.export;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.ecommerce.nashtech.modules.product.dto.FullProductDto;
+
+import io.r2dbc.postgresql.codec.Json;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streams every live product as a {@link FullProductDto} from one query.
+ * <p>
+ * Brand, categories and image links are joined in SQL, and rows are pulled
+ * from a server-side cursor {@code fetchSize} at a time as the subscriber
+ * requests them, so memory use does not depend on the size of the catalog.
+ * The cursor needs a transaction, which stays open for the whole export.
+ * </p>
+ */
+@Component
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ProductExporter {
+    R2dbcEntityTemplate template;
+    TransactionalOperator txOperator;
+    int fetchSize;
+
+    public ProductExporter(
+            R2dbcEntityTemplate template,
+            TransactionalOperator txOperator,
+            @Value("${product.export.fetch-size:500}") int fetchSize) {
+        this.template = template;
+        this.txOperator = txOperator;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<FullProductDto> export() {
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT p.uuid, p.name, p.description, p.price, p.stock_quantity,
+                            p.specifications, p.type, p.created_at, p.updated_at,
+                            b.name AS brand_name,
+                            ARRAY(SELECT c.name
+                                FROM product_category pc
+                                INNER JOIN categories c ON c.id = pc.category_id
+                                WHERE pc.product_id = p.id) AS categories,
+                            ARRAY(SELECT pi.image_uuid
+                                FROM product_image pi
+                                WHERE pi.product_uuid = p.uuid
+                                ORDER BY pi.id) AS images
+                        FROM products p
+                        LEFT JOIN brands b ON b.id = p.brand_id
+                        WHERE p.is_deleted IS NOT TRUE
+                        ORDER BY p.id
+                        """)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> FullProductDto.builder()
+                        .uuid(row.get("uuid", UUID.class))
+                        .name(row.get("name", String.class))
+                        .brandName(row.get("brand_name", String.class))
+                        .description(row.get("description", String.class))
+                        .price(row.get("price", BigDecimal.class))
+                        .specifications(row.get("specifications", Json.class))
+                        .stockQuantity(row.get("stock_quantity", Integer.class))
+                        .type(row.get("type", String.class))
+                        .createdAt(row.get("created_at", Long.class))
+                        .updatedAt(row.get("updated_at", Long.class))
+                        .categories(List.of(row.get("categories", String[].class)))
+                        .imagesUuid(List.of(row.get("images", UUID[].class)))
+                        .build())
+                .all()
+                .as(txOperator::transactional);
+    }
+}
@@ -0,0 +1,198 @@
+package com.ecommerce.nashtech.modules.product.internal.facet;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.product.model.Product;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.r2dbc.postgresql.codec.Json;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs a {@link ProductFilter} against the products table.
+ * <p>
+ * Every specification value becomes a {@code specifications @> :doc}
+ * containment test, which the GIN index {@code idx_product_specifications}
+ * answers directly. A value that looks like a number or boolean is also
+ * tried in that JSON type, since the catalog stores both {@code 16} and
+ * {@code "16"}.
+ * </p>
+ * <p>
+ * Facet counts are computed in one statement over the matched rows: one
+ * group per specification key and value, plus one per brand. Keys that are
+ * already filtered on are left out.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ProductFacetSearch {
+    R2dbcEntityTemplate template;
+
+    private record Hit(Product product, long total) {
+    }
+
+    private record Where(String sql, Map<String, Object> bindings) {
+    }
+
+    private record Facet(String name, String value, long count) {
+    }
+
+    public Mono<Page<Product>> find(ProductFilter filter, Pageable pageable) {
+        var where = where(filter);
+        // Only id is sortable: filters match arbitrary subsets, so no other
+        // index returns them in order
+        var order = pageable.getSortOr(Sort.by("id")).getOrderFor("id");
+        var direction = order != null && order.isDescending() ? "DESC" : "ASC";
+        var spec = template.getDatabaseClient()
+                .sql("""
+                        SELECT p.*, COUNT(*) OVER () AS total_matches
+                        FROM products p
+                        WHERE %s
+                        ORDER BY p.id %s
+                        LIMIT :limit OFFSET :offset
+                        """.formatted(where.sql(), direction))
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset());
+        return bindAll(spec, where)
+                .map((row, metadata) -> new Hit(
+                        template.getConverter().read(Product.class, row, metadata),
+                        row.get("total_matches", Long.class)))
+                .all()
+                .collectList()
+                .flatMap(hits -> {
+                    List<Product> products = hits.stream().map(Hit::product).toList();
+                    if (hits.isEmpty() && pageable.getOffset() > 0) {
+                        // Past the end there is no row to carry the window count
+                        return count(where).map(total -> new PageImpl<>(products, pageable, total));
+                    }
+                    long total = hits.isEmpty() ? 0L : hits.get(0).total();
+                    return Mono.just(new PageImpl<>(products, pageable, total));
+                });
+    }
+
+    private Mono<Long> count(Where where) {
+        var spec = template.getDatabaseClient()
+                .sql("SELECT COUNT(*) AS total_matches FROM products p WHERE " + where.sql());
+        return bindAll(spec, where)
+                .map((row, metadata) -> row.get("total_matches", Long.class))
+                .one();
+    }
+
+    public Mono<Map<String, Map<String, Long>>> facets(ProductFilter filter) {
+        var where = where(filter);
+        var specFacets = """
+                SELECT 'spec.' || kv.key AS facet, kv.value #>> '{}' AS value, COUNT(*) AS count
+                FROM matched m, jsonb_each(m.specs) kv
+                WHERE jsonb_typeof(kv.value) IN ('string', 'number', 'boolean')
+                %s
+                GROUP BY kv.key, kv.value #>> '{}'
+                """.formatted(filter.specs().isEmpty() ? "" : "AND NOT (kv.key = ANY(:filteredKeys))");
+        var brandFacets = filter.brandIds().isEmpty()
+                ? """
+                        UNION ALL
+                        SELECT 'brand', m.brand_id::text, COUNT(*)
+                        FROM matched m
+                        WHERE m.brand_id IS NOT NULL
+                        GROUP BY m.brand_id
+                        """
+                : "";
+        var spec = template.getDatabaseClient()
+                .sql("""
+                        WITH matched AS (
+                            SELECT p.brand_id,
+                                CASE WHEN jsonb_typeof(p.specifications) = 'object'
+                                    THEN p.specifications ELSE '{}'::jsonb END AS specs
+                            FROM products p
+                            WHERE %s
+                        )
+                        %s
+                        %s
+                        ORDER BY facet, count DESC, value
+                        """.formatted(where.sql(), specFacets, brandFacets));
+        if (!filter.specs().isEmpty()) {
+            spec = spec.bind("filteredKeys", filter.specs().keySet().toArray(new String[0]));
+        }
+        return bindAll(spec, where)
+                .map((row, metadata) -> new Facet(
+                        row.get("facet", String.class),
+                        row.get("value", String.class),
+                        row.get("count", Long.class)))
+                .all()
+                .<Map<String, Map<String, Long>>>collect(LinkedHashMap::new, (facets, facet) -> facets
+                        .computeIfAbsent(facet.name(), name -> new LinkedHashMap<>())
+                        .put(facet.value(), facet.count()));
+    }
+
+    private Where where(ProductFilter filter) {
+        var clauses = new ArrayList<String>();
+        var bindings = new LinkedHashMap<String, Object>();
+        clauses.add("p.is_deleted IS NOT TRUE");
+
+        int n = 0;
+        for (var spec : filter.specs().entrySet()) {
+            var alternatives = new ArrayList<String>();
+            for (var value : spec.getValue()) {
+                for (var node : candidates(value)) {
+                    var name = "spec" + n++;
+                    var doc = JsonNodeFactory.instance.objectNode().set(spec.getKey(), node);
+                    bindings.put(name, Json.of(doc.toString()));
+                    alternatives.add("p.specifications @> :" + name);
+                }
+            }
+            clauses.add("(" + String.join(" OR ", alternatives) + ")");
+        }
+        if (filter.minPrice().isSome()) {
+            clauses.add("p.price >= :minPrice");
+            bindings.put("minPrice", filter.minPrice().unwrap());
+        }
+        if (filter.maxPrice().isSome()) {
+            clauses.add("p.price <= :maxPrice");
+            bindings.put("maxPrice", filter.maxPrice().unwrap());
+        }
+        if (!filter.brandIds().isEmpty()) {
+            clauses.add("p.brand_id = ANY(:brandIds)");
+            bindings.put("brandIds", filter.brandIds().toArray(new Long[0]));
+        }
+        if (filter.categoryId().isSome()) {
+            clauses.add("""
+                    EXISTS (SELECT 1 FROM product_category pc
+                    WHERE pc.product_id = p.id AND pc.category_id = :categoryId)""");
+            bindings.put("categoryId", filter.categoryId().unwrap());
+        }
+        return new Where(String.join("\nAND ", clauses), bindings);
+    }
+
+    private static List<JsonNode> candidates(String value) {
+        var nodes = new ArrayList<JsonNode>();
+        nodes.add(JsonNodeFactory.instance.textNode(value));
+        if (value.equals("true") || value.equals("false")) {
+            nodes.add(JsonNodeFactory.instance.booleanNode(Boolean.parseBoolean(value)));
+        } else if (value.matches("-?\\d+(\\.\\d+)?")) {
+            nodes.add(JsonNodeFactory.instance.numberNode(new BigDecimal(value)));
+        }
+        return nodes;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindAll(DatabaseClient.GenericExecuteSpec spec, Where where) {
+        for (var binding : where.bindings().entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.nashtech.modules.product.internal.facet;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.util.MultiValueMap;
+
+import com.ecommerce.nashtech.modules.product.error.ProductError;
+import com.ecommerce.nashtech.shared.types.Option;
+import com.ecommerce.nashtech.shared.types.Result;
+
+/**
+ * Parsed form of a product filter query string.
+ * <p>
+ * {@code spec.<key>=a,b} matches products whose specifications contain
+ * {@code key} with value {@code a} or {@code b}; different keys must all
+ * match. {@code price=min..max} accepts open ends ({@code 100..},
+ * {@code ..500}), {@code brand=1,2} matches any of the given brand ids and
+ * {@code category=id} restricts to one category.
+ * </p>
+ *
+ * @param specs      Accepted values per specification key.
+ * @param minPrice   Inclusive lower price bound.
+ * @param maxPrice   Inclusive upper price bound.
+ * @param brandIds   Accepted brand ids, empty for any brand.
+ * @param categoryId Required category.
+ */
+public record ProductFilter(
+        Map<String, List<String>> specs,
+        Option<BigDecimal> minPrice,
+        Option<BigDecimal> maxPrice,
+        List<Long> brandIds,
+        Option<Long> categoryId) {
+
+    private static final String SPEC_PREFIX = "spec.";
+    private static final Pattern SPEC_KEY = Pattern.compile("[A-Za-z0-9_\\-]{1,64}");
+    private static final int MAX_SPEC_KEYS = 16;
+    private static final int MAX_VALUES = 32;
+
+    public static Result<ProductFilter, ProductError> parse(MultiValueMap<String, String> params) {
+        var specs = new LinkedHashMap<String, List<String>>();
+        for (var param : params.entrySet()) {
+            if (!param.getKey().startsWith(SPEC_PREFIX)) {
+                continue;
+            }
+            var key = param.getKey().substring(SPEC_PREFIX.length());
+            var values = split(param.getValue());
+            if (!SPEC_KEY.matcher(key).matches() || values.isEmpty() || values.size() > MAX_VALUES) {
+                return Result.err(ProductError.InvalidFilterError.build(param.getKey(), String.join(",",
+                        param.getValue())));
+            }
+            specs.put(key, values);
+        }
+        if (specs.size() > MAX_SPEC_KEYS) {
+            return Result.err(ProductError.InvalidFilterError.build("spec", specs.size() + " keys"));
+        }
+
+        Option<BigDecimal> minPrice = Option.none();
+        Option<BigDecimal> maxPrice = Option.none();
+        var price = params.getFirst("price");
+        if (price != null && !price.isBlank()) {
+            var bounds = price.split("\\.\\.", -1);
+            if (bounds.length != 2) {
+                return Result.err(ProductError.InvalidFilterError.build("price", price));
+            }
+            var min = parseDecimal(bounds[0]);
+            var max = parseDecimal(bounds[1]);
+            if (min.isErr() || max.isErr()) {
+                return Result.err(ProductError.InvalidFilterError.build("price", price));
+            }
+            minPrice = min.unwrap();
+            maxPrice = max.unwrap();
+        }
+
+        var brandIds = new ArrayList<Long>();
+        var brands = params.get("brand");
+        for (var brand : split(brands == null ? List.of() : brands)) {
+            var id = parseLong(brand);
+            if (id.isNone()) {
+                return Result.err(ProductError.InvalidFilterError.build("brand", brand));
+            }
+            brandIds.add(id.unwrap());
+        }
+
+        Option<Long> categoryId = Option.none();
+        var category = params.getFirst("category");
+        if (category != null && !category.isBlank()) {
+            categoryId = parseLong(category);
+            if (categoryId.isNone()) {
+                return Result.err(ProductError.InvalidFilterError.build("category", category));
+            }
+        }
+
+        return Result.ok(new ProductFilter(specs, minPrice, maxPrice, List.copyOf(brandIds), categoryId));
+    }
+
+    private static List<String> split(List<String> raw) {
+        var values = new ArrayList<String>();
+        for (var item : raw) {
+            for (var value : item.split(",")) {
+                var trimmed = value.trim();
+                if (!trimmed.isEmpty() && !values.contains(trimmed)) {
+                    values.add(trimmed);
+                }
+            }
+        }
+        return values;
+    }
+
+    private static Result<Option<BigDecimal>, NumberFormatException> parseDecimal(String text) {
+        if (text.isBlank()) {
+            return Result.ok(Option.none());
+        }
+        return Result.wrap(() -> Option.some(new BigDecimal(text.trim())));
+    }
+
+    private static Option<Long> parseLong(String text) {
+        return Result.<Long, NumberFormatException>wrap(() -> Long.valueOf(text.trim())).ignore();
+    }
+}
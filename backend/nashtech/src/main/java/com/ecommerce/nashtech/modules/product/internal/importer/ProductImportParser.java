@@ -0,0 +1,170 @@
+package com.ecommerce.nashtech.modules.product.internal.importer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.ecommerce.nashtech.modules.product.dto.ImportProductDto;
+import com.ecommerce.nashtech.shared.json.JSON;
+import com.ecommerce.nashtech.shared.types.Result;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Turns the lines of an import body into {@link ImportProductDto}s.
+ * <p>
+ * NDJSON bodies carry one product object per line. CSV bodies start with a
+ * header naming the columns ({@code uuid, name, brand, categories,
+ * description, price, stock_quantity, type, specifications}); categories
+ * are separated by {@code |} and specifications is a JSON object. Quoted
+ * fields may not span lines.
+ * </p>
+ */
+final class ProductImportParser {
+    private static final Set<String> COLUMNS = Set.of(
+            "uuid", "name", "brand", "categories", "description", "price", "stock_quantity", "type",
+            "specifications");
+
+    record Parsed(long line, Result<ImportProductDto, String> row) {
+    }
+
+    private ProductImportParser() {
+    }
+
+    static Flux<Parsed> ndjson(Flux<String> lines) {
+        var counter = new AtomicLong();
+        return lines
+                .map(line -> new Line(counter.incrementAndGet(), line))
+                .filter(line -> !line.text().isBlank())
+                .map(line -> new Parsed(line.number(), JSON.parse(line.text(), ImportProductDto.class)
+                        .mapErr(e -> "malformed JSON: " + e.getMessage())));
+    }
+
+    static Flux<Parsed> csv(Flux<String> lines) {
+        var counter = new AtomicLong();
+        var header = new AtomicReference<Map<String, Integer>>();
+        return lines
+                .map(line -> new Line(counter.incrementAndGet(), line))
+                .filter(line -> !line.text().isBlank())
+                .concatMap(line -> {
+                    if (header.get() == null) {
+                        var columns = header(line.text());
+                        if (columns.isErr()) {
+                            return Flux.just(new Parsed(line.number(), Result.err(columns.unwrapErr())));
+                        }
+                        header.set(columns.unwrap());
+                        return Flux.empty();
+                    }
+                    return Flux.just(new Parsed(line.number(), row(header.get(), line.text())));
+                })
+                .takeUntil(parsed -> header.get() == null);
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private static Result<Map<String, Integer>, String> header(String text) {
+        var fields = split(text);
+        if (fields.isErr()) {
+            return Result.err(fields.unwrapErr());
+        }
+        var columns = new HashMap<String, Integer>();
+        var names = fields.unwrap();
+        for (int i = 0; i < names.size(); i++) {
+            var name = names.get(i).trim().toLowerCase(Locale.ROOT).replace("stockquantity", "stock_quantity");
+            if (!COLUMNS.contains(name)) {
+                return Result.err("unknown column: " + names.get(i));
+            }
+            columns.put(name, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")
+                || !columns.containsKey("stock_quantity")) {
+            return Result.err("header must contain name, price and stock_quantity");
+        }
+        return Result.ok(columns);
+    }
+
+    private static Result<ImportProductDto, String> row(Map<String, Integer> columns, String text) {
+        var split = split(text);
+        if (split.isErr()) {
+            return Result.err(split.unwrapErr());
+        }
+        var fields = split.unwrap();
+        if (fields.size() != columns.size()) {
+            return Result.err("expected " + columns.size() + " fields, found " + fields.size());
+        }
+        try {
+            var uuid = field(columns, fields, "uuid");
+            var categories = field(columns, fields, "categories");
+            var price = field(columns, fields, "price");
+            var stock = field(columns, fields, "stock_quantity");
+            var specifications = field(columns, fields, "specifications");
+            return Result.ok(new ImportProductDto(
+                    uuid == null ? null : UUID.fromString(uuid),
+                    field(columns, fields, "name"),
+                    field(columns, fields, "brand"),
+                    categories == null ? null
+                            : Arrays.stream(categories.split("\\|")).map(String::trim)
+                                    .filter(name -> !name.isEmpty()).toList(),
+                    field(columns, fields, "description"),
+                    price == null ? null : new BigDecimal(price),
+                    stock == null ? null : Integer.valueOf(stock),
+                    field(columns, fields, "type"),
+                    specifications == null ? null
+                            : JSON.parse(specifications, JsonNode.class).unwrapOrElse(e -> {
+                                throw new IllegalArgumentException("malformed specifications");
+                            })));
+        } catch (IllegalArgumentException e) {
+            return Result.err(e.getMessage());
+        }
+    }
+
+    private static String field(Map<String, Integer> columns, List<String> fields, String column) {
+        var index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        var value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Result<List<String>, String> split(String line) {
+        var fields = new ArrayList<String>();
+        var current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return Result.err("unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return Result.ok(fields);
+    }
+}
@@ -0,0 +1,376 @@
+package com.ecommerce.nashtech.modules.product.internal.importer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.ecommerce.nashtech.modules.product.dto.ImportProductDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductImportErrorDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductImportProgressDto;
+import com.ecommerce.nashtech.modules.product.event.ProductChangedEvent;
+import com.ecommerce.nashtech.modules.product.internal.cache.ProductCache;
+import com.ecommerce.nashtech.modules.product.internal.suggest.ProductSuggestIndex;
+import com.ecommerce.nashtech.shared.types.Result;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bulk upsert of products from a streamed CSV or NDJSON body.
+ * <p>
+ * Rows are parsed as they arrive and grouped into batches. Each batch
+ * resolves its brand and category names (remembering them for the rest of
+ * the run), validates its rows and writes the valid ones with one
+ * multi-row upsert keyed on {@code uuid}, in its own transaction. A
+ * connection is therefore held for one batch at a time, and a bad row only
+ * fails itself.
+ * </p>
+ * <p>
+ * One progress record is emitted per batch with running totals and the
+ * errors of that batch.
+ * </p>
+ */
+@Component
+@Slf4j
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ProductImporter {
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    R2dbcEntityTemplate template;
+    TransactionalOperator txOperator;
+    ProductCache productCache;
+    ProductSuggestIndex productSuggestIndex;
+    ApplicationEventPublisher events;
+    int batchSize;
+
+    public ProductImporter(
+            R2dbcEntityTemplate template,
+            TransactionalOperator txOperator,
+            ProductCache productCache,
+            ProductSuggestIndex productSuggestIndex,
+            ApplicationEventPublisher events,
+            @Value("${product.import.batch-size:1000}") int batchSize) {
+        this.template = template;
+        this.txOperator = txOperator;
+        this.productCache = productCache;
+        this.productSuggestIndex = productSuggestIndex;
+        this.events = events;
+        this.batchSize = batchSize;
+    }
+
+    record ValidRow(
+            UUID uuid,
+            String name,
+            Long brandId,
+            List<Long> categoryIds,
+            String description,
+            BigDecimal price,
+            Integer stockQuantity,
+            String type,
+            String specifications) {
+    }
+
+    /**
+     * A product row as the upsert left it.
+     */
+    private record WrittenRow(long id, UUID uuid, String name, boolean deleted) {
+    }
+
+    /**
+     * Names already resolved during one import run. Missing names are
+     * remembered too, so a typo repeated on many rows is looked up once.
+     */
+    static final class Lookup {
+        final Map<String, Long> ids = new HashMap<>();
+
+        Long get(String name) {
+            return ids.get(key(name));
+        }
+
+        boolean isKnown(String name) {
+            return ids.containsKey(key(name));
+        }
+
+        static String key(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class Totals {
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+    }
+
+    public Flux<ProductImportProgressDto> run(Flux<DataBuffer> body, MediaType contentType) {
+        var lines = StringDecoder.allMimeTypes()
+                .decode(body, ResolvableType.forClass(String.class), contentType, Map.of());
+        var parsed = TEXT_CSV.isCompatibleWith(contentType)
+                ? ProductImportParser.csv(lines)
+                : ProductImportParser.ndjson(lines);
+        var brands = new Lookup();
+        var categories = new Lookup();
+        var totals = new Totals();
+        return parsed
+                .buffer(batchSize)
+                .concatMap(batch -> importBatch(batch, brands, categories, totals))
+                .doOnComplete(() -> log.info("Product import finished: {} processed, {} imported, {} failed",
+                        totals.processed.get(), totals.imported.get(), totals.failed.get()));
+    }
+
+    private Mono<ProductImportProgressDto> importBatch(
+            List<ProductImportParser.Parsed> batch,
+            Lookup brands,
+            Lookup categories,
+            Totals totals) {
+        var rows = new ArrayList<ImportProductDto>();
+        for (var parsed : batch) {
+            if (parsed.row().isOk()) {
+                rows.add(parsed.row().unwrap());
+            }
+        }
+        return resolve("brands", brands, rows.stream().map(ImportProductDto::brand).toList())
+                .then(resolve("categories", categories, rows.stream()
+                        .filter(row -> row.categories() != null)
+                        .flatMap(row -> row.categories().stream())
+                        .toList()))
+                .then(Mono.defer(() -> {
+                    var errors = new ArrayList<ProductImportErrorDto>();
+                    var valid = new LinkedHashMap<UUID, ValidRow>();
+                    for (var parsed : batch) {
+                        var row = parsed.row().andThen(dto -> validate(dto, brands, categories));
+                        switch (row) {
+                            case Result.Ok<ValidRow, String> ok -> {
+                                valid.remove(ok.get().uuid());
+                                valid.put(ok.get().uuid(), ok.get());
+                            }
+                            case Result.Err<ValidRow, String> err ->
+                                errors.add(new ProductImportErrorDto(parsed.line(), err.get()));
+                        }
+                    }
+                    var rowsToWrite = List.copyOf(valid.values());
+                    int rejected = errors.size();
+                    return write(rowsToWrite)
+                            .onErrorResume(e -> {
+                                log.warn("Product import batch failed", e);
+                                errors.add(new ProductImportErrorDto(null, "batch of " + rowsToWrite.size()
+                                        + " rows rolled back: " + e.getMessage()));
+                                return Mono.just(-1L);
+                            })
+                            .map(written -> {
+                                long failed = written < 0 ? rejected + rowsToWrite.size() : rejected;
+                                totals.processed.addAndGet(batch.size());
+                                totals.imported.addAndGet(Math.max(written, 0));
+                                totals.failed.addAndGet(failed);
+                                int number = totals.batches.incrementAndGet();
+                                log.debug("Product import batch {}: {} written, {} failed", number,
+                                        Math.max(written, 0), failed);
+                                return new ProductImportProgressDto(
+                                        number,
+                                        totals.processed.get(),
+                                        totals.imported.get(),
+                                        totals.failed.get(),
+                                        List.copyOf(errors));
+                            });
+                }));
+    }
+
+    private Mono<Void> resolve(String table, Lookup lookup, Collection<String> names) {
+        var unknown = names.stream()
+                .filter(name -> name != null && !name.isBlank() && !lookup.isKnown(name))
+                .map(Lookup::key)
+                .distinct()
+                .toArray(String[]::new);
+        if (unknown.length == 0) {
+            return Mono.empty();
+        }
+        return template.getDatabaseClient()
+                .sql("SELECT id, lower(name) AS name FROM " + table + " WHERE lower(name) = ANY(:names)")
+                .bind("names", unknown)
+                .map((row, metadata) -> Map.entry(row.get("name", String.class), row.get("id", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .doOnNext(found -> {
+                    for (var name : unknown) {
+                        lookup.ids.put(name, found.get(name));
+                    }
+                })
+                .then();
+    }
+
+    static Result<ValidRow, String> validate(ImportProductDto dto, Lookup brands, Lookup categories) {
+        if (dto.name() == null || dto.name().isBlank()) {
+            return Result.err("name is required");
+        }
+        if (dto.name().length() > 255) {
+            return Result.err("name is longer than 255 characters");
+        }
+        if (dto.price() == null || dto.price().signum() < 0) {
+            return Result.err("price must be zero or positive");
+        }
+        // products.price is NUMERIC(20, 2) since V4
+        if (dto.price().scale() > 2 || dto.price().precision() - dto.price().scale() > 18) {
+            return Result.err("price does not fit NUMERIC(20, 2)");
+        }
+        if (dto.stockQuantity() == null || dto.stockQuantity() < 0) {
+            return Result.err("stockQuantity must be zero or positive");
+        }
+        if (dto.type() != null && dto.type().length() > 50) {
+            return Result.err("type is longer than 50 characters");
+        }
+        if (dto.specifications() != null && !dto.specifications().isObject()) {
+            return Result.err("specifications must be a JSON object");
+        }
+        Long brandId = null;
+        if (dto.brand() != null && !dto.brand().isBlank()) {
+            brandId = brands.get(dto.brand());
+            if (brandId == null) {
+                return Result.err("unknown brand: " + dto.brand());
+            }
+        }
+        List<Long> categoryIds = null;
+        if (dto.categories() != null) {
+            categoryIds = new ArrayList<>();
+            for (var name : dto.categories()) {
+                var id = categories.get(name);
+                if (id == null) {
+                    return Result.err("unknown category: " + name);
+                }
+                categoryIds.add(id);
+            }
+        }
+        return Result.ok(new ValidRow(
+                dto.uuid() == null ? UUID.randomUUID() : dto.uuid(),
+                dto.name().trim(),
+                brandId,
+                categoryIds,
+                dto.description(),
+                dto.price(),
+                dto.stockQuantity(),
+                dto.type(),
+                dto.specifications() == null ? null : dto.specifications().toString()));
+    }
+
+    private Mono<Long> write(List<ValidRow> rows) {
+        if (rows.isEmpty()) {
+            return Mono.just(0L);
+        }
+        long now = Instant.now().toEpochMilli();
+        return template.getDatabaseClient()
+                .sql("""
+                        INSERT INTO products (uuid, brand_id, name, description, price, stock_quantity,
+                            specifications, type, is_deleted, created_at, updated_at)
+                        SELECT t.uuid, t.brand_id, t.name, t.description, t.price::numeric, t.stock_quantity,
+                            t.specifications::jsonb, t.type, FALSE, :now, :now
+                        FROM unnest(:uuids, :brandIds, :names, :descriptions, :prices, :stocks,
+                            :specifications, :types)
+                            AS t(uuid, brand_id, name, description, price, stock_quantity, specifications, type)
+                        ON CONFLICT (uuid) DO UPDATE SET
+                            brand_id = EXCLUDED.brand_id,
+                            name = EXCLUDED.name,
+                            description = EXCLUDED.description,
+                            price = EXCLUDED.price,
+                            -- The imported count is on hand; products.stock_quantity is what
+                            -- is left after open reservations (see V13). A count below the
+                            -- reserved quantity leaves nothing available.
+                            stock_quantity = GREATEST(0, EXCLUDED.stock_quantity - COALESCE(
+                                (SELECT SUM(r.quantity) FROM stock_reservations r WHERE r.product_id = products.id),
+                                0)),
+                            specifications = EXCLUDED.specifications,
+                            type = EXCLUDED.type,
+                            updated_at = EXCLUDED.updated_at
+                        RETURNING id, uuid, name, is_deleted
+                        """)
+                .bind("now", now)
+                .bind("uuids", rows.stream().map(ValidRow::uuid).toArray(UUID[]::new))
+                .bind("brandIds", rows.stream().map(ValidRow::brandId).toArray(Long[]::new))
+                .bind("names", rows.stream().map(ValidRow::name).toArray(String[]::new))
+                .bind("descriptions", rows.stream().map(ValidRow::description).toArray(String[]::new))
+                .bind("prices", rows.stream().map(row -> row.price().toPlainString()).toArray(String[]::new))
+                .bind("stocks", rows.stream().map(ValidRow::stockQuantity).toArray(Integer[]::new))
+                .bind("specifications", rows.stream().map(ValidRow::specifications).toArray(String[]::new))
+                .bind("types", rows.stream().map(ValidRow::type).toArray(String[]::new))
+                .map((row, metadata) -> new WrittenRow(
+                        row.get("id", Long.class),
+                        row.get("uuid", UUID.class),
+                        row.get("name", String.class),
+                        Boolean.TRUE.equals(row.get("is_deleted", Boolean.class))))
+                .all()
+                .collectList()
+                .flatMap(written -> replaceCategories(rows, written.stream()
+                        .collect(Collectors.toMap(WrittenRow::uuid, WrittenRow::id)))
+                        .thenReturn(written))
+                .as(txOperator::transactional)
+                .doOnNext(written -> {
+                    written.forEach(row -> productCache.invalidate(row.id(), row.uuid()));
+                    // The upsert keeps a soft-deleted product deleted, so it stays out of suggestions
+                    written.stream()
+                            .filter(row -> !row.deleted())
+                            .forEach(row -> productSuggestIndex.putProduct(row.uuid(), row.name()));
+                    events.publishEvent(new ProductChangedEvent(rows.stream().map(ValidRow::uuid).toList()));
+                })
+                .map(written -> (long) written.size());
+    }
+
+    private Mono<Void> replaceCategories(List<ValidRow> rows, Map<UUID, Long> ids) {
+        var productIds = new ArrayList<Long>();
+        var linkProductIds = new ArrayList<Long>();
+        var linkCategoryIds = new ArrayList<Long>();
+        for (var row : rows) {
+            if (row.categoryIds() == null) {
+                continue;
+            }
+            var productId = ids.get(row.uuid());
+            productIds.add(productId);
+            for (var categoryId : row.categoryIds()) {
+                linkProductIds.add(productId);
+                linkCategoryIds.add(categoryId);
+            }
+        }
+        if (productIds.isEmpty()) {
+            return Mono.empty();
+        }
+        var client = template.getDatabaseClient();
+        var delete = client
+                .sql("DELETE FROM product_category WHERE product_id = ANY(:ids)")
+                .bind("ids", productIds.toArray(new Long[0]))
+                .then();
+        if (linkProductIds.isEmpty()) {
+            return delete;
+        }
+        var insert = client
+                .sql("""
+                        INSERT INTO product_category (product_id, category_id)
+                        SELECT * FROM unnest(:productIds, :categoryIds)
+                        ON CONFLICT DO NOTHING
+                        """)
+                .bind("productIds", linkProductIds.toArray(new Long[0]))
+                .bind("categoryIds", linkCategoryIds.toArray(new Long[0]))
+                .then();
+        return delete.then(insert);
+    }
+}
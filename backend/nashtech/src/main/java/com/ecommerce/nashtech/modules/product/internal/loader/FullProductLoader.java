@@ -0,0 +1,116 @@
+package com.ecommerce.nashtech.modules.product.internal.loader;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.product.dto.FullProductDto;
+import com.ecommerce.nashtech.modules.product.model.Product;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Assembles {@link FullProductDto}s for a batch of already loaded products.
+ * <p>
+ * Brands, categories and image links are fetched with one {@code = ANY(:ids)}
+ * query each and joined in memory, so the cost of a page does not grow with
+ * its size. The output keeps the order of the input list.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class FullProductLoader {
+    R2dbcEntityTemplate template;
+
+    public Flux<FullProductDto> load(List<Product> products) {
+        if (products.isEmpty()) {
+            return Flux.empty();
+        }
+        var brandIds = products.stream()
+                .map(Product::getBrandId)
+                .filter(id -> id != null)
+                .distinct()
+                .toArray(Long[]::new);
+        var productIds = products.stream().map(Product::getId).toArray(Long[]::new);
+        var productUuids = products.stream().map(Product::getUuid).toArray(UUID[]::new);
+
+        return Mono.zip(
+                findBrandNames(brandIds),
+                findCategoryNames(productIds),
+                findImageUuids(productUuids))
+                .flatMapMany(tuple -> {
+                    var brands = tuple.getT1();
+                    var categories = tuple.getT2();
+                    var images = tuple.getT3();
+                    return Flux.fromIterable(products)
+                            .map(product -> FullProductDto.builder()
+                                    .brandName(brands.get(product.getBrandId()))
+                                    .name(product.getName())
+                                    .uuid(product.getUuid())
+                                    .description(product.getDescription())
+                                    .price(product.getPrice())
+                                    .specifications(product.getSpecifications())
+                                    .stockQuantity(product.getStockQuantity())
+                                    .type(product.getType())
+                                    .createdAt(product.getCreatedAt())
+                                    .updatedAt(product.getUpdatedAt())
+                                    .imagesUuid(List.copyOf(images.getOrDefault(product.getUuid(), List.of())))
+                                    .categories(List.copyOf(categories.getOrDefault(product.getId(), List.of())))
+                                    .build());
+                });
+    }
+
+    private Mono<Map<Long, String>> findBrandNames(Long[] brandIds) {
+        if (brandIds.length == 0) {
+            return Mono.just(Map.of());
+        }
+        return template.getDatabaseClient()
+                .sql("SELECT id, name FROM brands WHERE id = ANY(:ids)")
+                .bind("ids", brandIds)
+                .map((row, metadata) -> Map.entry(
+                        row.get("id", Long.class),
+                        row.get("name", String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<Map<Long, Collection<String>>> findCategoryNames(Long[] productIds) {
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT pc.product_id AS productId, c.name AS name
+                        FROM product_category pc
+                        INNER JOIN categories c ON c.id = pc.category_id
+                        WHERE pc.product_id = ANY(:ids)
+                        """)
+                .bind("ids", productIds)
+                .map((row, metadata) -> Map.entry(
+                        row.get("productId", Long.class),
+                        row.get("name", String.class)))
+                .all()
+                .collectMultimap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<Map<UUID, Collection<UUID>>> findImageUuids(UUID[] productUuids) {
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT product_uuid AS productUuid, image_uuid AS imageUuid
+                        FROM product_image
+                        WHERE product_uuid = ANY(:uuids)
+                        ORDER BY id
+                        """)
+                .bind("uuids", productUuids)
+                .map((row, metadata) -> Map.entry(
+                        row.get("productUuid", UUID.class),
+                        row.get("imageUuid", UUID.class)))
+                .all()
+                .collectMultimap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+}
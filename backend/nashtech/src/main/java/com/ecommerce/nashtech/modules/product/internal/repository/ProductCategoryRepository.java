@@ -38,19 +38,15 @@ public interface ProductCategoryRepository extends R2dbcRepository<ProductCatego
 
     @Query("""
                     SELECT p.*
-                    FROM products p
-                    INNER JOIN product_category pc ON p.id = pc.product_id
-                    WHERE pc.category_id = :categoryId
-                    LIMIT :limit OFFSET :offset
-            """)
-    Flux<Product> findAllProductsByCategoryId(Long categoryId, int limit, int offset);
-
-    @Query("""
-                    SELECT COUNT(*)
                     FROM product_category pc
+                    INNER JOIN products p ON p.id = pc.product_id
                     WHERE pc.category_id = :categoryId
+                    AND pc.product_id > :afterId
+                    AND p.is_deleted IS NOT TRUE
+                    ORDER BY pc.product_id
+                    LIMIT :limit
             """)
-    Mono<Long> countByCategoryId(Long categoryId);
+    Flux<Product> findAllProductsByCategoryIdAfter(Long categoryId, long afterId, int limit);
 
     Mono<Void> deleteByProductIdAndCategoryId(Long productId, Long categoryId);
 }
@@ -22,26 +22,24 @@ public interface ProductRepository extends R2dbcRepository<Product, Long> {
 
     Mono<Product> findByUuid(UUID uuid);
 
-    Mono<Product> findByName(String name);
+    @Query("SELECT updated_at FROM products WHERE id = :id AND is_deleted IS NOT TRUE")
+    Mono<Long> findVersionById(Long id);
 
-    @Query("""
-                SELECT P.*
-                FROM productS AS p
-                INNER JOIN brands AS b
-                ON p.brand_id = b.id
-                WHERE b.id = :id
-                LIMIT :limit OFFSET :offset
-            """)
-    Flux<Product> findAllByBrand(Long id, int limit, int offset);
+    @Query("SELECT updated_at FROM products WHERE uuid = :uuid AND is_deleted IS NOT TRUE")
+    Mono<Long> findVersionByUuid(UUID uuid);
+
+    Mono<Product> findByName(String name);
 
     @Query("""
-                SELECT COUNT(*)
+                SELECT p.*
                 FROM products AS p
-                INNER JOIN brands AS b
-                ON p.brand_id = b.id
-                WHERE b.id = :id
+                WHERE p.brand_id = :id
+                AND p.id > :afterId
+                AND p.is_deleted IS NOT TRUE
+                ORDER BY p.id
+                LIMIT :limit
             """)
-    Mono<Long> countByBrandId(Long id);
+    Flux<Product> findAllByBrandAfter(Long id, long afterId, int limit);
 
     @Query("""
                 SELECT P.*
@@ -66,4 +64,15 @@ public interface ProductRepository extends R2dbcRepository<Product, Long> {
     Flux<Product> findByNameContainingIgnoreCase(String searchTerm, Pageable pageable);
 
     Mono<Long> countByNameContainingIgnoreCase(String searchTerm);
+
+    @Query("""
+                SELECT p.*
+                FROM products AS p
+                WHERE p.name ILIKE :pattern
+                AND (p.name, p.id) > (:afterName, :afterId)
+                AND p.is_deleted IS NOT TRUE
+                ORDER BY p.name, p.id
+                LIMIT :limit
+            """)
+    Flux<Product> findByNameLikeAfter(String pattern, String afterName, long afterId, int limit);
 }
@@ -0,0 +1,84 @@
+package com.ecommerce.nashtech.modules.product.internal.search;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.product.model.Product;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Mono;
+
+/**
+ * Relevance-ranked product search over the weighted {@code search_vector}
+ * document (name, brand, type, description) and the trigram index on
+ * {@code name}. The document keeps name, brand and type as written
+ * ({@code simple}) and stems the description ({@code english}, see V7), so
+ * the term is parsed with both configurations and either may match.
+ * <p>
+ * The total number of matches is read from the same query with a window
+ * count, so a page costs a single round trip. A page past the end has no
+ * row to carry that count, so only then is it counted separately.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ProductSearchEngine {
+    R2dbcEntityTemplate template;
+
+    private record Hit(Product product, long total) {
+    }
+
+    private static final String MATCHES = """
+            FROM products p,
+                (SELECT websearch_to_tsquery('simple', :term) || websearch_to_tsquery('english', :term) AS q) t
+            WHERE p.is_deleted IS NOT TRUE
+            AND (p.search_vector @@ t.q OR p.name ILIKE :pattern)
+            """;
+
+    public Mono<Page<Product>> search(String term, Pageable pageable) {
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT p.*, COUNT(*) OVER () AS total_matches
+                        %s
+                        ORDER BY ts_rank_cd(p.search_vector, t.q) + similarity(p.name, :term) DESC, p.id
+                        LIMIT :limit OFFSET :offset
+                        """.formatted(MATCHES))
+                .bind("term", term)
+                .bind("pattern", "%" + escapeLike(term) + "%")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map((row, metadata) -> new Hit(
+                        template.getConverter().read(Product.class, row, metadata),
+                        row.get("total_matches", Long.class)))
+                .all()
+                .collectList()
+                .flatMap(hits -> {
+                    List<Product> products = hits.stream().map(Hit::product).toList();
+                    if (hits.isEmpty() && pageable.getOffset() > 0) {
+                        return count(term).map(total -> new PageImpl<>(products, pageable, total));
+                    }
+                    long total = hits.isEmpty() ? 0L : hits.get(0).total();
+                    return Mono.just(new PageImpl<>(products, pageable, total));
+                });
+    }
+
+    private Mono<Long> count(String term) {
+        return template.getDatabaseClient()
+                .sql("SELECT COUNT(*) AS total_matches " + MATCHES)
+                .bind("term", term)
+                .bind("pattern", "%" + escapeLike(term) + "%")
+                .map((row, metadata) -> row.get("total_matches", Long.class))
+                .one();
+    }
+
+    public static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
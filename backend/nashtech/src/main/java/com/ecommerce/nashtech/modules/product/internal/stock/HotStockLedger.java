@@ -0,0 +1,197 @@
+package com.ecommerce.nashtech.modules.product.internal.stock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.ecommerce.nashtech.modules.product.internal.stock.StockChanges.ProductRef;
+import com.ecommerce.nashtech.shared.types.Option;
+
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Absorbs reservations of hot products (flash sales) in memory and writes
+ * them to the database in groups.
+ * <p>
+ * Every guarded decrement holds the product's row lock until it commits, so
+ * thousands of concurrent reservations of one product queue up behind each
+ * other. Reservations of a product listed in
+ * {@code product.stock.hot.product-ids} are instead appended to a ledger,
+ * striped by thread so the event loops do not contend on a single queue.
+ * Every {@code product.stock.hot.flush-interval} milliseconds,
+ * {@link #flush()} drains each ledger, locks the product once, grants
+ * pending reservations stripe by stripe while the stock lasts, and records
+ * all granted ones with a single decrement. The row is then locked once per
+ * node and flush instead of once per reservation.
+ * </p>
+ * <p>
+ * Granted reservations are ordinary {@code stock_reservations} rows, so they
+ * are confirmed, released and expired like any other.
+ * </p>
+ */
+@Component
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class HotStockLedger implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    StockReservationStore store;
+    StockChanges stockChanges;
+    TransactionalOperator txOperator;
+    Map<Long, Ledger> ledgers;
+    Duration flushInterval;
+    AtomicReference<Disposable> loop = new AtomicReference<>(Disposables.disposed());
+
+    public HotStockLedger(
+            StockReservationStore store,
+            StockChanges stockChanges,
+            TransactionalOperator txOperator,
+            @Value("${product.stock.hot.product-ids:}") Set<Long> hotProductIds,
+            @Value("${product.stock.hot.stripes:16}") int stripes,
+            @Value("${product.stock.hot.flush-interval:10}") long flushIntervalMillis) {
+        this.store = store;
+        this.stockChanges = stockChanges;
+        this.txOperator = txOperator;
+        this.flushInterval = Duration.ofMillis(flushIntervalMillis);
+        this.ledgers = hotProductIds.stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), id -> new Ledger(stripes)));
+    }
+
+    public boolean isHot(Long productId) {
+        return ledgers.containsKey(productId);
+    }
+
+    /**
+     * Queues a reservation of a hot product for the next flush.
+     *
+     * @return whether it was granted, once it has been committed.
+     */
+    public Mono<Boolean> reserve(UUID reservationId, Long productId, int quantity) {
+        var demand = new Demand(reservationId, quantity, Sinks.one());
+        ledgers.get(productId).append(demand);
+        return demand.result().asMono();
+    }
+
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationReadyEvent e) {
+        if (ledgers.isEmpty()) {
+            return;
+        }
+        // Flushes run back to back on their own loop rather than on the
+        // shared task scheduler, so a slow scheduled job cannot hold up
+        // reservations waiting for a flush
+        loop.set(Mono.delay(flushInterval)
+                .then(Mono.defer(this::flush))
+                .repeat()
+                .subscribe());
+    }
+
+    @Override
+    public void destroy() {
+        loop.get().dispose();
+    }
+
+    public Mono<Void> flush() {
+        return Flux.fromIterable(ledgers.entrySet())
+                .flatMap(entry -> flush(entry.getKey(), entry.getValue().drain()))
+                .then();
+    }
+
+    private Mono<Void> flush(Long productId, List<Demand> demands) {
+        if (demands.isEmpty()) {
+            return Mono.empty();
+        }
+        return store.lockAvailable(productId)
+                .defaultIfEmpty(0)
+                .flatMap(available -> {
+                    var granted = grant(demands, available);
+                    if (granted.isEmpty()) {
+                        return Mono.just(new Flushed(granted, Option.<ProductRef>none()));
+                    }
+                    return store.reserveLocked(
+                            productId,
+                            granted.stream().map(Demand::reservationId).toList(),
+                            granted.stream().map(Demand::quantity).toList())
+                            .map(product -> new Flushed(granted, Option.some(product)));
+                })
+                .as(txOperator::transactional)
+                .doOnNext(flushed -> {
+                    if (flushed.product().isSome()) {
+                        stockChanges.publish(List.of(flushed.product().unwrap()));
+                    }
+                    var granted = flushed.granted();
+                    granted.forEach(demand -> demand.result().tryEmitValue(true));
+                    // Already granted sinks ignore the second value
+                    demands.forEach(demand -> demand.result().tryEmitValue(false));
+                })
+                .doOnError(err -> {
+                    log.warn("Hot stock flush failed for product {}", productId, err);
+                    demands.forEach(demand -> demand.result().tryEmitError(err));
+                })
+                .onErrorComplete()
+                .then();
+    }
+
+    private static List<Demand> grant(List<Demand> demands, int available) {
+        var granted = new ArrayList<Demand>();
+        var left = available;
+        for (var demand : demands) {
+            if (demand.quantity() <= left) {
+                granted.add(demand);
+                left -= demand.quantity();
+            }
+        }
+        return granted;
+    }
+
+    private record Demand(UUID reservationId, int quantity, Sinks.One<Boolean> result) {
+    }
+
+    private record Flushed(List<Demand> granted, Option<ProductRef> product) {
+    }
+
+    private static final class Ledger {
+        private final List<ConcurrentLinkedQueue<Demand>> stripes;
+
+        Ledger(int stripes) {
+            this.stripes = IntStream.range(0, stripes)
+                    .mapToObj(i -> new ConcurrentLinkedQueue<Demand>())
+                    .toList();
+        }
+
+        void append(Demand demand) {
+            stripes.get((int) (Thread.currentThread().threadId() % stripes.size())).add(demand);
+        }
+
+        List<Demand> drain() {
+            var drained = new ArrayList<Demand>();
+            for (var stripe : stripes) {
+                Demand demand;
+                while ((demand = stripe.poll()) != null) {
+                    drained.add(demand);
+                }
+            }
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.nashtech.modules.product.internal.stock;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.product.event.ProductChangedEvent;
+import com.ecommerce.nashtech.modules.product.internal.cache.ProductCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Tells the read side that stock levels changed.
+ * <p>
+ * A stock change bumps the product's version (see V10), which turns its
+ * {@code product_view} row stale and leaves a cached detail with the old
+ * stock. Each reservation, release and sweep batch therefore invalidates
+ * the cached products once and publishes one {@link ProductChangedEvent}
+ * for all of them, after its transaction has committed.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class StockChanges {
+    ProductCache productCache;
+    ApplicationEventPublisher events;
+
+    /**
+     * @param id   The product id.
+     * @param uuid The product uuid.
+     */
+    public record ProductRef(long id, UUID uuid) {
+    }
+
+    public void publish(Collection<ProductRef> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        products.forEach(product -> productCache.invalidate(product.id(), product.uuid()));
+        events.publishEvent(new ProductChangedEvent(products.stream().map(ProductRef::uuid).distinct().toList()));
+    }
+}
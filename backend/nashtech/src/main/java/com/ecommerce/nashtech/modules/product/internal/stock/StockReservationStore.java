@@ -0,0 +1,279 @@
+package com.ecommerce.nashtech.modules.product.internal.stock;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.product.error.ProductError;
+import com.ecommerce.nashtech.modules.product.internal.stock.StockChanges.ProductRef;
+
+import io.r2dbc.spi.Row;
+
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * The SQL behind stock reservations (see V13).
+ * <p>
+ * Stock is only ever taken with a guarded decrement
+ * ({@code stock_quantity - n WHERE stock_quantity >= n}) in the same
+ * statement that records the reservation, so concurrent reservations can
+ * never oversell and never need a read-modify-write. Statements that touch
+ * several products lock them in id order first, so two of them cannot
+ * deadlock.
+ * </p>
+ * <p>
+ * Releases run in a statement of their own and report the products they
+ * restored to {@link StockChanges} themselves. Reservations run inside the
+ * caller's transaction, so they return the products instead and the caller
+ * reports them once it has committed.
+ * </p>
+ */
+@Component
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class StockReservationStore {
+    R2dbcEntityTemplate template;
+    StockChanges stockChanges;
+    long ttlMillis;
+    int sweepBatchSize;
+
+    public StockReservationStore(
+            R2dbcEntityTemplate template,
+            StockChanges stockChanges,
+            @Value("${product.stock.reservation-ttl:PT15M}") Duration ttl,
+            @Value("${product.stock.sweep-batch-size:500}") int sweepBatchSize) {
+        this.template = template;
+        this.stockChanges = stockChanges;
+        this.ttlMillis = ttl.toMillis();
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Reserves every item in one statement. Must run in a transaction: when
+     * any product lacks stock it fails with
+     * {@link ProductError.InsufficientStockError} and the decrements already
+     * made by the statement are rolled back with it.
+     *
+     * @param quantities The quantity per product id.
+     * @return the products whose stock was taken.
+     */
+    public Mono<List<ProductRef>> reserve(UUID reservationId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        var productIds = quantities.keySet().toArray(Long[]::new);
+        var amounts = quantities.values().toArray(Integer[]::new);
+        return template.getDatabaseClient()
+                .sql("""
+                        WITH request AS (
+                            SELECT * FROM unnest(:productIds, :quantities) AS r(product_id, quantity)
+                        ), locked AS (
+                            SELECT p.id
+                            FROM products p
+                            INNER JOIN request r ON r.product_id = p.id
+                            WHERE p.is_deleted IS NOT TRUE
+                            AND p.stock_quantity >= r.quantity
+                            ORDER BY p.id
+                            FOR UPDATE OF p
+                        ), reserved AS (
+                            UPDATE products p
+                            SET stock_quantity = p.stock_quantity - r.quantity
+                            FROM locked l, request r
+                            WHERE p.id = l.id
+                            AND r.product_id = p.id
+                            AND p.stock_quantity >= r.quantity
+                            RETURNING p.id, p.uuid, r.quantity
+                        ), inserted AS (
+                            INSERT INTO stock_reservations (reservation_id, product_id, quantity, expires_at)
+                            SELECT :reservationId, id, quantity, now_millis() + :ttl
+                            FROM reserved
+                        )
+                        SELECT id, uuid FROM reserved
+                        """)
+                .bind("productIds", productIds)
+                .bind("quantities", amounts)
+                .bind("reservationId", reservationId)
+                .bind("ttl", ttlMillis)
+                .map((row, metadata) -> productRef(row))
+                .all()
+                .collectList()
+                .flatMap(reserved -> {
+                    if (reserved.size() == quantities.size()) {
+                        return Mono.just(reserved);
+                    }
+                    var missing = new HashSet<>(quantities.keySet());
+                    reserved.forEach(product -> missing.remove(product.id()));
+                    return Mono.error(ProductError.InsufficientStockError.build(missing));
+                });
+    }
+
+    /**
+     * Locks a product's row for the rest of the transaction.
+     *
+     * @return its available stock, empty if it does not exist or is deleted.
+     */
+    public Mono<Integer> lockAvailable(Long productId) {
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT stock_quantity
+                        FROM products
+                        WHERE id = :id
+                        AND is_deleted IS NOT TRUE
+                        FOR UPDATE
+                        """)
+                .bind("id", productId)
+                .map((row, metadata) -> row.get("stock_quantity", Integer.class))
+                .one();
+    }
+
+    /**
+     * Records several reservations of one product that have already been
+     * checked against its stock under {@link #lockAvailable}, with a single
+     * decrement of their total.
+     *
+     * @return the product.
+     */
+    public Mono<ProductRef> reserveLocked(Long productId, List<UUID> reservationIds, List<Integer> quantities) {
+        var total = quantities.stream().mapToInt(Integer::intValue).sum();
+        return template.getDatabaseClient()
+                .sql("""
+                        WITH reserved AS (
+                            UPDATE products
+                            SET stock_quantity = stock_quantity - :total
+                            WHERE id = :id
+                            AND stock_quantity >= :total
+                            RETURNING id, uuid
+                        ), inserted AS (
+                            INSERT INTO stock_reservations (reservation_id, product_id, quantity, expires_at)
+                            SELECT r.reservation_id, reserved.id, r.quantity, now_millis() + :ttl
+                            FROM reserved, unnest(:reservationIds, :quantities) AS r(reservation_id, quantity)
+                            RETURNING 1
+                        )
+                        SELECT id, uuid, (SELECT COUNT(*) FROM inserted) AS inserted
+                        FROM reserved
+                        """)
+                .bind("id", productId)
+                .bind("total", total)
+                .bind("reservationIds", reservationIds.toArray(UUID[]::new))
+                .bind("quantities", quantities.toArray(Integer[]::new))
+                .bind("ttl", ttlMillis)
+                .map((row, metadata) -> Map.entry(productRef(row), row.get("inserted", Long.class)))
+                .one()
+                .filter(reserved -> reserved.getValue() == reservationIds.size())
+                .map(Map.Entry::getKey)
+                .switchIfEmpty(Mono.error(ProductError.InsufficientStockError.build(List.of(productId))));
+    }
+
+    /**
+     * Deletes a live reservation without giving its stock back, which is
+     * now sold.
+     *
+     * @return the number of products it held, 0 if it is unknown or expired.
+     */
+    public Mono<Long> confirm(UUID reservationId) {
+        return template.getDatabaseClient()
+                .sql("""
+                        DELETE FROM stock_reservations
+                        WHERE reservation_id = :id
+                        AND expires_at > now_millis()
+                        """)
+                .bind("id", reservationId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Gives the stock of a reservation back, expired or not.
+     *
+     * @return the number of products it held.
+     */
+    public Mono<Long> release(UUID reservationId) {
+        return restore("reservation_id = :id", "id", reservationId);
+    }
+
+    /**
+     * Gives back the stock of expired reservations, in batches. Rows that
+     * another node is sweeping, confirming or releasing are skipped.
+     *
+     * @return the number of released reservation rows.
+     */
+    @Scheduled(fixedDelayString = "${product.stock.sweep-interval:30000}")
+    public Mono<Long> releaseExpired() {
+        var batch = restore("""
+                (reservation_id, product_id) IN (
+                    SELECT reservation_id, product_id
+                    FROM stock_reservations
+                    WHERE expires_at <= now_millis()
+                    ORDER BY expires_at
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                """, "limit", sweepBatchSize);
+        return batch
+                .expand(released -> released < sweepBatchSize ? Mono.empty() : batch)
+                .reduce(0L, Long::sum)
+                .doOnNext(released -> {
+                    if (released > 0) {
+                        log.info("Released {} expired stock reservations", released);
+                    }
+                })
+                .doOnError(err -> log.error("Expired stock reservation sweep failed", err));
+    }
+
+    private Mono<Long> restore(String condition, String name, Object value) {
+        return template.getDatabaseClient()
+                .sql("""
+                        WITH released AS (
+                            DELETE FROM stock_reservations
+                            WHERE %s
+                            RETURNING product_id, quantity
+                        ), totals AS (
+                            SELECT product_id, SUM(quantity) AS quantity
+                            FROM released
+                            GROUP BY product_id
+                        ), locked AS (
+                            SELECT p.id
+                            FROM products p
+                            INNER JOIN totals t ON t.product_id = p.id
+                            ORDER BY p.id
+                            FOR UPDATE OF p
+                        ), restored AS (
+                            UPDATE products p
+                            SET stock_quantity = p.stock_quantity + t.quantity
+                            FROM locked l, totals t
+                            WHERE p.id = l.id
+                            AND t.product_id = p.id
+                            RETURNING p.id, p.uuid
+                        )
+                        SELECT (SELECT COUNT(*) FROM released) AS released,
+                            ARRAY(SELECT id FROM restored) AS ids,
+                            ARRAY(SELECT uuid FROM restored) AS uuids
+                        """.formatted(condition))
+                .bind(name, value)
+                .map((row, metadata) -> {
+                    var ids = row.get("ids", Long[].class);
+                    var uuids = row.get("uuids", UUID[].class);
+                    var restored = IntStream.range(0, ids.length)
+                            .mapToObj(i -> new ProductRef(ids[i], uuids[i]))
+                            .toList();
+                    return Map.entry(row.get("released", Long.class), restored);
+                })
+                .one()
+                .doOnNext(released -> stockChanges.publish(released.getValue()))
+                .map(Map.Entry::getKey);
+    }
+
+    private static ProductRef productRef(Row row) {
+        return new ProductRef(row.get("id", Long.class), row.get("uuid", UUID.class));
+    }
+}
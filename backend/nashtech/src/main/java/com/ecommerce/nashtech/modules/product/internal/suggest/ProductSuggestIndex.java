@@ -0,0 +1,267 @@
+package com.ecommerce.nashtech.modules.product.internal.suggest;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.product.dto.ProductSuggestionDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * In-memory autocomplete index over live product names, brands and
+ * categories.
+ * <p>
+ * Every label is indexed under its full normalized text and under each word
+ * start, so "gal" matches "Samsung Galaxy S24". Terms live in a sorted map;
+ * a prefix lookup is a range scan that keeps the {@code k} most popular
+ * entries in a bounded heap. Results for very short prefixes, whose ranges
+ * cover a large part of the catalog, are kept for a few seconds.
+ * </p>
+ * <p>
+ * Popularity is the number of detail views for products and the number of
+ * live products for brands and categories. Views are counted outside the
+ * lock, so recording one never blocks a lookup, and are folded into the
+ * ranking every {@code product.suggest.view-flush-interval} milliseconds.
+ * </p>
+ */
+@Component
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ProductSuggestIndex {
+    public static final int MAX_LIMIT = 20;
+    private static final int SHORT_PREFIX = 2;
+
+    public enum Type {
+        PRODUCT, BRAND, CATEGORY
+    }
+
+    record Entry(Type type, String key, String label, long popularity) {
+        Entry withPopularity(long popularity) {
+            return new Entry(type, key, label, Math.max(0, popularity));
+        }
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::popularity)
+            .thenComparing(entry -> -entry.label().length())
+            .thenComparing(Entry::label, Comparator.reverseOrder());
+
+    ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    NavigableMap<String, Set<String>> terms = new TreeMap<>();
+    Map<String, Entry> entries = new HashMap<>();
+    ConcurrentHashMap<String, LongAdder> views = new ConcurrentHashMap<>();
+    Cache<String, List<ProductSuggestionDto>> shortPrefixes = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    public List<ProductSuggestionDto> suggest(String query, int limit) {
+        var prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (prefix.length() <= SHORT_PREFIX) {
+            var top = shortPrefixes.get(prefix, p -> lookup(p, MAX_LIMIT));
+            return top.subList(0, Math.min(k, top.size()));
+        }
+        return lookup(prefix, k);
+    }
+
+    public void putProduct(UUID uuid, String name) {
+        var key = "product:" + uuid;
+        write(() -> {
+            var existing = entries.get(key);
+            put(new Entry(Type.PRODUCT, key, name, existing == null ? 0 : existing.popularity()));
+        });
+    }
+
+    public void putProduct(UUID uuid, String name, long popularity) {
+        write(() -> put(new Entry(Type.PRODUCT, "product:" + uuid, name, popularity)));
+    }
+
+    public void putBrand(Long id, String name, long productCount) {
+        write(() -> put(new Entry(Type.BRAND, "brand:" + id, name, productCount)));
+    }
+
+    public void removeBrand(Long id) {
+        write(() -> remove("brand:" + id));
+    }
+
+    public void putCategory(Long id, String name, long productCount) {
+        write(() -> put(new Entry(Type.CATEGORY, "category:" + id, name, productCount)));
+    }
+
+    public void recordView(UUID uuid) {
+        views.computeIfAbsent("product:" + uuid, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Applies the views recorded since the last flush under one write lock.
+     */
+    @Scheduled(fixedDelayString = "${product.suggest.view-flush-interval:5000}")
+    public void flushViews() {
+        var pending = new HashMap<String, Long>();
+        for (var key : views.keySet()) {
+            // Views recorded after the removal start a new adder. One that
+            // races the removal may be lost, which a popularity count can bear.
+            var adder = views.remove(key);
+            var count = adder == null ? 0 : adder.sum();
+            if (count > 0) {
+                pending.put(key, count);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        write(() -> pending.forEach((key, delta) -> {
+            var existing = entries.get(key);
+            if (existing != null) {
+                entries.put(key, existing.withPopularity(existing.popularity() + delta));
+            }
+        }));
+    }
+
+    public void clear() {
+        write(() -> {
+            terms.clear();
+            entries.clear();
+        });
+        views.clear();
+        shortPrefixes.invalidateAll();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ProductSuggestionDto> lookup(String prefix, int k) {
+        lock.readLock().lock();
+        try {
+            var range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            var seen = new HashSet<String>();
+            var heap = new PriorityQueue<Entry>(k + 1, RANKING);
+            for (var keys : range.values()) {
+                for (var key : keys) {
+                    if (!seen.add(key)) {
+                        continue;
+                    }
+                    heap.offer(entries.get(key));
+                    if (heap.size() > k) {
+                        heap.poll();
+                    }
+                }
+            }
+            var result = new ArrayList<Entry>(heap);
+            result.sort(RANKING.reversed());
+            return result.stream()
+                    .map(entry -> new ProductSuggestionDto(
+                            entry.type().name(),
+                            entry.label(),
+                            entry.key().substring(entry.key().indexOf(':') + 1)))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Entry entry) {
+        var existing = entries.get(entry.key());
+        if (existing != null && !existing.label().equals(entry.label())) {
+            unindex(existing);
+        }
+        entries.put(entry.key(), entry);
+        for (var term : termsOf(entry.label())) {
+            terms.computeIfAbsent(term, t -> new HashSet<>()).add(entry.key());
+        }
+        invalidateShortPrefixes(entry.label());
+    }
+
+    private void remove(String key) {
+        var existing = entries.remove(key);
+        if (existing != null) {
+            unindex(existing);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (var term : termsOf(entry.label())) {
+            var keys = terms.get(term);
+            if (keys != null) {
+                keys.remove(entry.key());
+                if (keys.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+        invalidateShortPrefixes(entry.label());
+    }
+
+    private void invalidateShortPrefixes(String label) {
+        for (var term : termsOf(label)) {
+            for (int i = 1; i <= Math.min(SHORT_PREFIX, term.length()); i++) {
+                shortPrefixes.invalidate(term.substring(0, i));
+            }
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> termsOf(String label) {
+        var normalized = normalize(label);
+        var result = new LinkedHashSet<String>();
+        if (normalized.isEmpty()) {
+            return result;
+        }
+        result.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ') {
+                result.add(normalized.substring(i));
+            }
+        }
+        return result;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.nashtech.modules.product.internal.suggest;
+
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fills the {@link ProductSuggestIndex} from the database once the
+ * application is ready. Later changes are applied incrementally by the
+ * product service and {@link ProductSuggestProjector}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ProductSuggestIndexLoader implements ApplicationListener<ApplicationReadyEvent> {
+    R2dbcEntityTemplate template;
+    ProductSuggestIndex index;
+
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationReadyEvent e) {
+        load()
+                .doOnSuccess(v -> log.info("Product suggest index loaded with {} entries", index.size()))
+                .doOnError(err -> log.error("Product suggest index load failed", err))
+                .subscribe();
+    }
+
+    private Mono<Void> load() {
+        var client = template.getDatabaseClient();
+        var products = client
+                .sql("SELECT uuid, name FROM products WHERE is_deleted IS NOT TRUE")
+                .map((row, metadata) -> {
+                    index.putProduct(row.get("uuid", UUID.class), row.get("name", String.class));
+                    return true;
+                })
+                .all()
+                .then();
+        var brands = client
+                .sql("""
+                        SELECT b.id, b.name, COUNT(p.id) AS count
+                        FROM brands b
+                        LEFT JOIN products p ON p.brand_id = b.id AND p.is_deleted IS NOT TRUE
+                        GROUP BY b.id, b.name
+                        """)
+                .map((row, metadata) -> {
+                    index.putBrand(row.get("id", Long.class), row.get("name", String.class),
+                            row.get("count", Long.class));
+                    return true;
+                })
+                .all()
+                .then();
+        var categories = client
+                .sql("""
+                        SELECT c.id, c.name, COUNT(p.id) AS count
+                        FROM categories c
+                        LEFT JOIN product_category pc ON pc.category_id = c.id
+                        LEFT JOIN products p ON p.id = pc.product_id AND p.is_deleted IS NOT TRUE
+                        GROUP BY c.id, c.name
+                        """)
+                .map((row, metadata) -> {
+                    index.putCategory(row.get("id", Long.class), row.get("name", String.class),
+                            row.get("count", Long.class));
+                    return true;
+                })
+                .all()
+                .then();
+        return Mono.fromRunnable(index::clear)
+                .then(products)
+                .then(brands)
+                .then(categories);
+    }
+}
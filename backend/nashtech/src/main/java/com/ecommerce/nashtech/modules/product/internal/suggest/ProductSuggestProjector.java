@@ -0,0 +1,54 @@
+package com.ecommerce.nashtech.modules.product.internal.suggest;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.brand.event.BrandChangedEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the brand terms of the {@link ProductSuggestIndex} in step with
+ * brand writes.
+ * <p>
+ * A renamed brand is re-read and put under its new name; a deleted one is
+ * removed. A failed refresh leaves the old term until the next restart.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ProductSuggestProjector {
+    R2dbcEntityTemplate template;
+    ProductSuggestIndex index;
+
+    @EventListener
+    public Mono<Void> on(BrandChangedEvent event) {
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT b.name, COUNT(p.id) AS count
+                        FROM brands b
+                        LEFT JOIN products p ON p.brand_id = b.id AND p.is_deleted IS NOT TRUE
+                        WHERE b.id = :id
+                        GROUP BY b.name
+                        """)
+                .bind("id", event.brandId())
+                .map((row, metadata) -> {
+                    index.putBrand(event.brandId(), row.get("name", String.class), row.get("count", Long.class));
+                    return true;
+                })
+                .one()
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    index.removeBrand(event.brandId());
+                    return false;
+                }))
+                .doOnError(err -> log.warn("Suggest index refresh failed for brand {}", event.brandId(), err))
+                .onErrorComplete()
+                .then();
+    }
+}
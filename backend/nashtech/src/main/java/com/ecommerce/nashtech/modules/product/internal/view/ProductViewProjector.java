@@ -0,0 +1,50 @@
+package com.ecommerce.nashtech.modules.product.internal.view;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.brand.event.BrandChangedEvent;
+import com.ecommerce.nashtech.modules.product.event.ProductChangedEvent;
+import com.ecommerce.nashtech.modules.product.internal.cache.ProductCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps {@code product_view} in step with product and brand writes.
+ * <p>
+ * The events are published after the write has committed. The returned
+ * {@code Mono} is subscribed by the event infrastructure, so the publisher
+ * does not wait for the projection. A failed projection only leaves the row
+ * stale, which {@link ProductViewStore} detects and repairs on the next
+ * read.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ProductViewProjector {
+    ProductViewStore productViewStore;
+    ProductCache productCache;
+
+    @EventListener
+    public Mono<Void> on(ProductChangedEvent event) {
+        return productViewStore.refresh(event.productUuids())
+                .doOnError(err -> log.warn("Product view refresh failed for {}", event.productUuids(), err))
+                .onErrorComplete()
+                .then();
+    }
+
+    @EventListener
+    public Mono<Void> on(BrandChangedEvent event) {
+        // The brand's cached products still carry its old name
+        return productViewStore.refreshBrand(event.brandId())
+                .doOnNext(product -> productCache.invalidate(product.id(), product.uuid()))
+                .doOnError(err -> log.warn("Product view refresh failed for brand {}", event.brandId(), err))
+                .onErrorComplete()
+                .then();
+    }
+}
@@ -0,0 +1,204 @@
+package com.ecommerce.nashtech.modules.product.internal.view;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.nashtech.modules.product.dto.FullProductDto;
+import com.ecommerce.nashtech.modules.product.event.ProductChangedEvent;
+import com.ecommerce.nashtech.modules.product.internal.loader.FullProductLoader;
+import com.ecommerce.nashtech.modules.product.model.Product;
+import com.ecommerce.nashtech.shared.enums.ProductFinder;
+
+import io.r2dbc.postgresql.codec.Json;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads {@link FullProductDto}s from the {@code product_view} read model
+ * (see V12), one row per product.
+ * <p>
+ * A view row is only used while its {@code updated_at} equals the
+ * product's. Every write that changes a product's detail bumps that column
+ * (see V10), so a row that has not been re-projected yet, for example
+ * because the event is still in flight or the change was made in SQL, is
+ * never served. Such products are assembled by {@link FullProductLoader}
+ * instead and a {@link ProductChangedEvent} is published to re-project them.
+ * A product whose repair is already under way is not published again, so a
+ * hot stale product costs one refresh rather than one per read.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
+public class ProductViewStore {
+    private static final long REPAIR_TIMEOUT_MILLIS = 30_000;
+
+    R2dbcEntityTemplate template;
+    FullProductLoader fullProductLoader;
+    ApplicationEventPublisher events;
+    // Products with a repair in flight, by when it was requested. A repair
+    // that never reports back is retried after REPAIR_TIMEOUT_MILLIS.
+    ConcurrentHashMap<UUID, Long> repairing = new ConcurrentHashMap<>();
+
+    /**
+     * @return the up-to-date view of a live product, empty if the product
+     *         does not exist, is deleted or its view is stale.
+     */
+    public Mono<FullProductDto> find(ProductFinder finder) {
+        var condition = switch (finder) {
+            case ProductFinder.ById id -> "v.product_id = :key";
+            case ProductFinder.ByUuid uuid -> "v.uuid = :key";
+        };
+        Object key = switch (finder) {
+            case ProductFinder.ById id -> id.id();
+            case ProductFinder.ByUuid uuid -> uuid.uuid();
+        };
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT v.*
+                        FROM product_view v
+                        INNER JOIN products p ON p.id = v.product_id
+                        WHERE %s
+                        AND p.updated_at = v.updated_at
+                        AND p.is_deleted IS NOT TRUE
+                        """.formatted(condition))
+                .bind("key", key)
+                .map((row, metadata) -> toDto(row))
+                .one();
+    }
+
+    /**
+     * Replaces {@link FullProductLoader#load} for already loaded products.
+     * The output keeps the order of the input list.
+     */
+    public Flux<FullProductDto> load(List<Product> products) {
+        if (products.isEmpty()) {
+            return Flux.empty();
+        }
+        var ids = products.stream().map(Product::getId).toArray(Long[]::new);
+        return template.getDatabaseClient()
+                .sql("SELECT * FROM product_view WHERE product_id = ANY(:ids)")
+                .bind("ids", ids)
+                .map((row, metadata) -> Map.entry(row.get("product_id", Long.class), toDto(row)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMapMany(views -> {
+                    var stale = products.stream()
+                            .filter(product -> !isFresh(views.get(product.getId()), product))
+                            .toList();
+                    if (stale.isEmpty()) {
+                        return Flux.fromIterable(products).map(product -> views.get(product.getId()));
+                    }
+                    repair(stale);
+                    return fullProductLoader.load(stale)
+                            .collectMap(FullProductDto::getUuid, Function.identity())
+                            .flatMapMany(loaded -> Flux.fromIterable(products)
+                                    .map(product -> isFresh(views.get(product.getId()), product)
+                                            ? views.get(product.getId())
+                                            : loaded.get(product.getUuid())));
+                });
+    }
+
+    /**
+     * Re-projects the given products from the base tables.
+     *
+     * @return the number of rows written.
+     */
+    public Mono<Integer> refresh(Collection<UUID> productUuids) {
+        if (productUuids.isEmpty()) {
+            return Mono.just(0);
+        }
+        return template.getDatabaseClient()
+                .sql("""
+                        SELECT refresh_product_view(ARRAY(
+                            SELECT id FROM products WHERE uuid = ANY(:uuids)
+                        )) AS refreshed
+                        """)
+                .bind("uuids", productUuids.toArray(UUID[]::new))
+                .map((row, metadata) -> row.get("refreshed", Integer.class))
+                .one()
+                .doFinally(signal -> productUuids.forEach(repairing::remove));
+    }
+
+    private void repair(List<Product> stale) {
+        var now = System.currentTimeMillis();
+        var claimed = stale.stream()
+                .map(Product::getUuid)
+                .filter(uuid -> {
+                    var requestedAt = repairing.get(uuid);
+                    if (requestedAt != null && now - requestedAt < REPAIR_TIMEOUT_MILLIS) {
+                        return false;
+                    }
+                    return requestedAt == null
+                            ? repairing.putIfAbsent(uuid, now) == null
+                            : repairing.replace(uuid, requestedAt, now);
+                })
+                .toList();
+        if (!claimed.isEmpty()) {
+            events.publishEvent(new ProductChangedEvent(claimed));
+        }
+    }
+
+    /**
+     * @param id   The product id.
+     * @param uuid The product uuid.
+     */
+    public record RefreshedProduct(long id, UUID uuid) {
+    }
+
+    /**
+     * Re-projects every product of a brand, including those whose view
+     * still points at it after they moved away.
+     *
+     * @return the re-projected products.
+     */
+    public Flux<RefreshedProduct> refreshBrand(Long brandId) {
+        return template.getDatabaseClient()
+                .sql("""
+                        WITH affected AS (
+                            SELECT id, uuid FROM products WHERE brand_id = :id
+                            UNION
+                            SELECT product_id, uuid FROM product_view WHERE brand_id = :id
+                        ), refreshed AS (
+                            SELECT refresh_product_view(ARRAY(SELECT id FROM affected))
+                        )
+                        SELECT a.id, a.uuid FROM affected a, refreshed
+                        """)
+                .bind("id", brandId)
+                .map((row, metadata) -> new RefreshedProduct(row.get("id", Long.class), row.get("uuid", UUID.class)))
+                .all();
+    }
+
+    private static boolean isFresh(FullProductDto view, Product product) {
+        return view != null && view.getUpdatedAt().equals(product.getUpdatedAt());
+    }
+
+    private static FullProductDto toDto(Row row) {
+        return FullProductDto.builder()
+                .name(row.get("name", String.class))
+                .uuid(row.get("uuid", UUID.class))
+                .brandName(row.get("brand_name", String.class))
+                .description(row.get("description", String.class))
+                .price(row.get("price", BigDecimal.class))
+                .specifications(row.get("specifications", Json.class))
+                .stockQuantity(row.get("stock_quantity", Integer.class))
+                .type(row.get("type", String.class))
+                .createdAt(row.get("created_at", Long.class))
+                .updatedAt(row.get("updated_at", Long.class))
+                .imagesUuid(List.of(row.get("image_uuids", UUID[].class)))
+                .categories(List.of(row.get("category_names", String[].class)))
+                .build();
+    }
+}
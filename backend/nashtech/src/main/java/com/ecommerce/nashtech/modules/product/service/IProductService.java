@@ -3,15 +3,23 @@ package com.ecommerce.nashtech.modules.product.service;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.util.MultiValueMap;
 
 import com.ecommerce.nashtech.modules.image.model.Image;
+import com.ecommerce.nashtech.modules.product.dto.FilteredProductsDto;
 import com.ecommerce.nashtech.modules.product.dto.FullProductDto;
 import com.ecommerce.nashtech.modules.product.dto.ProductBrandCountDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductCacheStatsDto;
 import com.ecommerce.nashtech.modules.product.dto.ProductCategoryCountDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductImportProgressDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductSuggestionDto;
 import com.ecommerce.nashtech.modules.product.model.Product;
 import com.ecommerce.nashtech.shared.enums.ProductFinder;
+import com.ecommerce.nashtech.shared.types.CursorPage;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -22,8 +30,20 @@ public interface IProductService {
 
     Mono<FullProductDto> getFullProduct(ProductFinder finder);
 
+    /**
+     * @return the {@code updatedAt} of the product, empty if it does not
+     *         exist. Changes to its brand name, categories and images bump
+     *         it too.
+     */
+    Mono<Long> findVersion(ProductFinder finder);
+
     Flux<FullProductDto> findAllByBrand(Pageable pageable, Long id);
 
+    /**
+     * @return the page in slices, see {@link CursorPage#slice}.
+     */
+    Flux<CursorPage<FullProductDto>> findAllByBrand(String after, int size, Long id);
+
     Mono<Long> countByBrand(Long id);
 
     // Mono<Long> countDistinctByBrand(Long id);
@@ -32,10 +52,23 @@ public interface IProductService {
 
     Flux<FullProductDto> findAllByCategory(Pageable pageable, Long id);
 
+    /**
+     * @return the page in slices, see {@link CursorPage#slice}.
+     */
+    Flux<CursorPage<FullProductDto>> findAllByCategory(String after, int size, Long id);
+
+    Mono<Long> countVersionByBrand(Long id);
+
+    Mono<Long> countVersionOfBrands();
+
+    Mono<Long> countVersionOfCategories();
+
     Flux<ProductCategoryCountDto> countByCategoryIds(List<Long> categoryIds);
 
     Mono<Long> countByCategory(Long id);
 
+    Mono<FilteredProductsDto> filter(MultiValueMap<String, String> params, Pageable pageable);
+
     Mono<Image> uploadProductImage(UUID productUuid,
             FilePart filePart,
             String altText);
@@ -44,4 +77,12 @@ public interface IProductService {
             Flux<FilePart> fileParts,
             String altText);
 
+    Flux<FullProductDto> exportCatalog();
+
+    Flux<ProductImportProgressDto> importCatalog(Flux<DataBuffer> body, MediaType contentType);
+
+    List<ProductSuggestionDto> suggest(String query, int limit);
+
+    ProductCacheStatsDto cacheStats();
+
 }
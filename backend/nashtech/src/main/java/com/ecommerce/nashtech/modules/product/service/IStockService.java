@@ -0,0 +1,30 @@
+package com.ecommerce.nashtech.modules.product.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ecommerce.nashtech.modules.product.dto.StockItemDto;
+
+import reactor.core.publisher.Mono;
+
+public interface IStockService {
+
+    /**
+     * Takes the stock of every item, or of none.
+     *
+     * @return the id of the reservation, which holds the stock until it is
+     *         confirmed, released or expires.
+     */
+    Mono<UUID> reserve(List<StockItemDto> items);
+
+    /**
+     * Turns a live reservation into a sale.
+     */
+    Mono<Void> confirm(UUID reservationId);
+
+    /**
+     * Gives the stock of a reservation back. Releasing an unknown or
+     * already released reservation does nothing.
+     */
+    Mono<Void> release(UUID reservationId);
+}
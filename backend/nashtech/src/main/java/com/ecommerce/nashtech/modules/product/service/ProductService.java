@@ -1,33 +1,55 @@
 package com.ecommerce.nashtech.modules.product.service;
 
-import com.ecommerce.nashtech.modules.brand.internal.repository.BrandRepository;
-import com.ecommerce.nashtech.modules.brand.model.Brand;
-import com.ecommerce.nashtech.modules.category.model.Category;
 import com.ecommerce.nashtech.modules.image.model.Image;
 import com.ecommerce.nashtech.modules.image.service.ImageService;
+import com.ecommerce.nashtech.modules.product.dto.FilteredProductsDto;
 import com.ecommerce.nashtech.modules.product.dto.FullProductDto;
 import com.ecommerce.nashtech.modules.product.dto.ProductBrandCountDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductCacheStatsDto;
 import com.ecommerce.nashtech.modules.product.dto.ProductCategoryCountDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductImportProgressDto;
+import com.ecommerce.nashtech.modules.product.dto.ProductSuggestionDto;
 import com.ecommerce.nashtech.modules.product.dto.UpdateProductDto;
 import com.ecommerce.nashtech.modules.product.error.ProductError;
+import com.ecommerce.nashtech.modules.product.event.ProductChangedEvent;
+import com.ecommerce.nashtech.modules.product.internal.cache.ProductCache;
+import com.ecommerce.nashtech.modules.product.internal.counter.ProductCounters;
+import com.ecommerce.nashtech.modules.product.internal.export.ProductExporter;
+import com.ecommerce.nashtech.modules.product.internal.facet.ProductFacetSearch;
+import com.ecommerce.nashtech.modules.product.internal.facet.ProductFilter;
+import com.ecommerce.nashtech.modules.product.internal.importer.ProductImporter;
 import com.ecommerce.nashtech.modules.product.internal.repository.ProductRepository;
+import com.ecommerce.nashtech.modules.product.internal.search.ProductSearchEngine;
+import com.ecommerce.nashtech.modules.product.internal.suggest.ProductSuggestIndex;
+import com.ecommerce.nashtech.modules.product.internal.view.ProductViewStore;
 import com.ecommerce.nashtech.modules.product.internal.patch.ProductPatcher;
 import com.ecommerce.nashtech.modules.product.internal.repository.ProductCategoryRepository;
 import com.ecommerce.nashtech.modules.product.internal.repository.ProductImageRepository;
 import com.ecommerce.nashtech.modules.product.model.Product;
 import com.ecommerce.nashtech.modules.product.model.ProductImage;
 import com.ecommerce.nashtech.shared.enums.ProductFinder;
+import com.ecommerce.nashtech.shared.types.Cursor;
+import com.ecommerce.nashtech.shared.types.CursorPage;
 import com.ecommerce.nashtech.shared.types.Option;
+import com.ecommerce.nashtech.shared.util.SingleFlight;
 
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.http.MediaType;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.MultiValueMap;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -37,20 +59,33 @@ import static lombok.AccessLevel.PRIVATE;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(makeFinal = true, level = PRIVATE)
 public class ProductService implements IProductService {
+    // Rows whose views are loaded with one query, so listings stream in
+    // bounded chunks instead of after the whole page
+    private static final int VIEW_CHUNK = 32;
 
     ProductRepository productRepo;
     ProductCategoryRepository productCategoryRepo;
     ProductImageRepository productImageRepo;
-    BrandRepository brandRepo;
     TransactionalOperator txOperator;
     R2dbcEntityTemplate template;
     ImageService imageService;
     ProductPatcher productPatcher;
+    ProductViewStore productViewStore;
+    ApplicationEventPublisher events;
+    ProductCache productCache;
+    ProductSearchEngine productSearchEngine;
+    ProductSuggestIndex productSuggestIndex;
+    ProductFacetSearch productFacetSearch;
+    ProductExporter productExporter;
+    ProductImporter productImporter;
+    ProductCounters productCounters;
+    SingleFlight<ProductFinder, FullProductDto> fullProductFlights = new SingleFlight<>();
 
     @Override
     public Mono<Product> find(ProductFinder finder) {
@@ -64,100 +99,110 @@ public class ProductService implements IProductService {
 
     @Override
     public Mono<FullProductDto> getFullProduct(ProductFinder finder) {
-        return find(finder)
-                .flatMap(product -> {
-                    Mono<Brand> brandMono = brandRepo.findById(product.getBrandId());
-                    Mono<List<String>> categoriesMono = productCategoryRepo
-                            .findAllCategoriesByProductId(product.getId())
-                            .map(Category::getName)
-                            .collectList();
-                    Mono<List<ProductImage>> productImages = productImageRepo.findAllByProductUuid(product.getUuid())
-                            .collectList();
-                    return Mono.zip(brandMono, categoriesMono, productImages)
-                            .map(tuple -> {
-                                var brand = tuple.getT1();
-                                var categories = tuple.getT2();
-                                var imagesUuid = tuple.getT3().stream().map(ProductImage::getImageUuid).toList();
-                                return FullProductDto.builder()
-                                        .brandName(brand.getName())
-                                        .name(product.getName())
-                                        .uuid(product.getUuid())
-                                        .description(product.getDescription())
-                                        .price(product.getPrice())
-                                        .specifications(product.getSpecifications())
-                                        .stockQuantity(product.getStockQuantity())
-                                        .type(product.getType())
-                                        .createdAt(product.getCreatedAt())
-                                        .updatedAt(product.getUpdatedAt())
-                                        .imagesUuid(imagesUuid)
-                                        .categories(categories)
-                                        .build();
-                            });
-                });
+        return productCache.get(finder, () -> fullProductFlights.execute(finder, () -> productViewStore.find(finder)
+                .switchIfEmpty(Mono.defer(() -> find(finder)
+                        .flatMap(product -> productViewStore.load(List.of(product)).next())))))
+                .doOnNext(product -> productSuggestIndex.recordView(product.getUuid()));
+    }
+
+    @Override
+    public Mono<Long> findVersion(ProductFinder finder) {
+        var cached = productCache.peek(finder);
+        if (cached.isSome()) {
+            return Mono.justOrEmpty(cached.unwrap().getUpdatedAt());
+        }
+        return switch (finder) {
+            case ProductFinder.ById id -> productRepo.findVersionById(id.id());
+            case ProductFinder.ByUuid uuid -> productRepo.findVersionByUuid(uuid.uuid());
+        };
     }
 
     @Override
     public Flux<FullProductDto> findAllByBrand(Pageable pageable, Long id) {
-        var limit = pageable.getPageSize();
-        var offset = pageable.getPageNumber() * limit;
-        return productRepo.findAllByBrand(id, limit, offset)
-                .filter(product -> !product.getDeleted())
-                .flatMap(product -> {
-                    var finder = new ProductFinder.ById(product.getId());
-                    return getFullProduct(finder);
-                });
+        var live = Criteria.where("brandId").is(id)
+                .and(Criteria.where("deleted").isNull().or("deleted").isFalse());
+        var query = Query.query(live)
+                .sort(pageable.getSortOr(Sort.by("id")))
+                .limit(pageable.getPageSize())
+                .offset(pageable.getOffset());
+        return loadFullProducts(template.select(Product.class)
+                .matching(query)
+                .all());
+    }
+
+    @Override
+    public Flux<CursorPage<FullProductDto>> findAllByBrand(String after, int size, Long id) {
+        return decodeCursor(after)
+                .flatMapMany(cursor -> loadFullProducts(productRepo.findAllByBrandAfter(id, cursor.id(), size),
+                        product -> Cursor.of(product.getId())));
     }
 
     @Override
     public Mono<Long> countByBrand(Long id) {
-        return productRepo.countByBrandId(id);
+        return productCounters.countByBrand(id);
     }
 
     @Override
     public Flux<ProductBrandCountDto> countByBrandIds(List<Long> brandIds) {
-        if (brandIds.isEmpty()) {
-            return Flux.empty();
-        }
-        return template.getDatabaseClient()
-                .sql("SELECT brand_id AS brandId, COUNT(*) AS count FROM products WHERE brand_id = ANY(:ids) GROUP BY brand_id")
-                .bind("ids", brandIds.toArray(new Long[0]))
-                .map((row, metadata) -> new ProductBrandCountDto(
-                        row.get("brandId", Long.class),
-                        row.get("count", Long.class)))
-                .all();
+        return productCounters.countByBrandIds(brandIds);
     }
 
     @Override
     public Flux<FullProductDto> findAllByCategory(Pageable pageable, Long id) {
-        var limit = pageable.getPageSize();
-        var offset = pageable.getPageNumber() * limit;
-        return productCategoryRepo.findAllProductsByCategoryId(id, limit, offset)
-                .filter(product -> !product.getDeleted())
-                .flatMap(product -> {
-                    var finder = new ProductFinder.ById(product.getId());
-                    return getFullProduct(finder);
-                });
+        // Only id is sortable here: the link index (category_id, product_id)
+        // is the only one that returns a category's products in order
+        var order = pageable.getSortOr(Sort.by("id")).getOrderFor("id");
+        var direction = order != null && order.isDescending() ? "DESC" : "ASC";
+        return loadFullProducts(template.getDatabaseClient()
+                .sql("""
+                        SELECT p.*
+                        FROM product_category pc
+                        INNER JOIN products p ON p.id = pc.product_id
+                        WHERE pc.category_id = :categoryId
+                        AND p.is_deleted IS NOT TRUE
+                        ORDER BY pc.product_id %s
+                        LIMIT :limit OFFSET :offset
+                        """.formatted(direction))
+                .bind("categoryId", id)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map((row, metadata) -> template.getConverter().read(Product.class, row, metadata))
+                .all());
+    }
+
+    @Override
+    public Flux<CursorPage<FullProductDto>> findAllByCategory(String after, int size, Long id) {
+        return decodeCursor(after)
+                .flatMapMany(cursor -> loadFullProducts(
+                        productCategoryRepo.findAllProductsByCategoryIdAfter(id, cursor.id(), size),
+                        product -> Cursor.of(product.getId())));
     }
 
     @Override
     public Mono<Long> countByCategory(Long id) {
-        return productCategoryRepo.countByCategoryId(id)
+        return productCounters.countByCategory(id)
                 .filter(count -> count > 0)
                 .switchIfEmpty(Mono.error(ProductError.ProductNotFoundError.build(Option.none())));
     }
 
+    @Override
+    public Mono<Long> countVersionByBrand(Long id) {
+        return productCounters.brandVersion(id);
+    }
+
+    @Override
+    public Mono<Long> countVersionOfBrands() {
+        return productCounters.brandsVersion();
+    }
+
+    @Override
+    public Mono<Long> countVersionOfCategories() {
+        return productCounters.categoriesVersion();
+    }
+
     @Override
     public Flux<ProductCategoryCountDto> countByCategoryIds(List<Long> categoryIds) {
-        if (categoryIds.isEmpty()) {
-            return Flux.empty();
-        }
-        return template.getDatabaseClient()
-                .sql("SELECT category_id AS categoryId, COUNT(*) AS count FROM product_category WHERE category_id = ANY(:ids) GROUP BY category_id")
-                .bind("ids", categoryIds.toArray(new Long[0]))
-                .map((row, metadata) -> new ProductCategoryCountDto(
-                        row.get("categoryId", Long.class),
-                        row.get("count", Long.class)))
-                .all();
+        return productCounters.countByCategoryIds(categoryIds);
     }
 
     @Override
@@ -174,7 +219,8 @@ public class ProductService implements IProductService {
                     return productImageRepo.save(link)
                             .thenReturn(image);
                 })
-                .as(txOperator::transactional);
+                .as(txOperator::transactional)
+                .flatMap(image -> imagesChanged(productUuid).thenReturn(image));
     }
 
     @Override
@@ -183,27 +229,24 @@ public class ProductService implements IProductService {
             String altText) {
         return fileParts
                 .flatMap(file -> uploadProductImage(productUuid, file, altText))
-                .as(txOperator::transactional);
+                .as(txOperator::transactional)
+                .concatWith(Mono.defer(() -> imagesChanged(productUuid)).then(Mono.empty()));
     }
 
     public Flux<Image> getProductImages(UUID productUuid) {
-        return productImageRepo.findAllByProductUuid(productUuid)
-                .flatMap(link -> imageService.getImageMetadata(link.getImageUuid()));
+        return imageService.getProductImages(productUuid);
     }
 
     public Flux<Image> getMetadataOfAllImages(UUID productUuid) {
-        return productImageRepo.findAllByProductUuid(productUuid)
-                .flatMap(link -> imageService.getImageMetadata(link.getImageUuid()));
+        return imageService.getProductImages(productUuid);
     }
 
     public Flux<Image> getImagesByUuids(List<UUID> imageUuids) {
-        return Flux.fromIterable(imageUuids)
-                .flatMap(imageService::getImageMetadata);
+        return imageService.getImageMetadata(imageUuids);
     }
 
     public Flux<Image> getImagesByUuids(Flux<UUID> imageUuids) {
-        return imageUuids
-                .flatMap(imageService::getImageMetadata);
+        return imageService.getImageMetadata(imageUuids);
     }
 
     public Flux<Product> findProductsByNamePrefix(String namePrefix) {
@@ -227,6 +270,46 @@ public class ProductService implements IProductService {
         return productRepo.findByNameContainingIgnoreCase(searchTerm, pageable);
     }
 
+    /**
+     * @return the page in slices, see {@link CursorPage#slice}.
+     */
+    public Flux<CursorPage<Product>> findProducts(String searchTerm, String after, int size) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return Flux.empty();
+        }
+        var pattern = "%" + ProductSearchEngine.escapeLike(searchTerm) + "%";
+        return decodeCursor(after)
+                .flatMapMany(cursor -> productRepo.findByNameLikeAfter(pattern, cursor.key(), cursor.id(), size))
+                .buffer(VIEW_CHUNK)
+                .map(products -> CursorPage.slice(products, products,
+                        product -> Cursor.of(product.getName(), product.getId())));
+    }
+
+    public Mono<Page<Product>> searchRanked(String searchTerm, Pageable pageable) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return Mono.just(Page.empty(pageable));
+        }
+        return productSearchEngine.search(searchTerm.trim(), pageable);
+    }
+
+    @Override
+    public Mono<FilteredProductsDto> filter(MultiValueMap<String, String> params, Pageable pageable) {
+        return ProductFilter.parse(params)
+                .toMono()
+                .flatMap(filter -> Mono.zip(
+                        productFacetSearch.find(filter, pageable)
+                                .flatMap(page -> productViewStore.load(page.getContent())
+                                        .collectList()
+                                        .map(items -> new PageImpl<>(items, pageable, page.getTotalElements()))),
+                        productFacetSearch.facets(filter)))
+                .map(tuple -> new FilteredProductsDto(
+                        tuple.getT1().getContent(),
+                        tuple.getT1().getNumber(),
+                        tuple.getT1().getSize(),
+                        tuple.getT1().getTotalElements(),
+                        tuple.getT2()));
+    }
+
     public Mono<Long> countByName(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return Mono.just(0L);
@@ -240,7 +323,64 @@ public class ProductService implements IProductService {
                     productPatcher.patch(product, updateProductDto);
                     return productRepo.save(product);
                 })
-                .as(txOperator::transactional);
+                .as(txOperator::transactional)
+                .doOnNext(product -> {
+                    productCache.invalidate(product.getId(), product.getUuid());
+                    productSuggestIndex.putProduct(product.getUuid(), product.getName());
+                    events.publishEvent(ProductChangedEvent.of(product.getUuid()));
+                });
+    }
+
+    @Override
+    public Flux<FullProductDto> exportCatalog() {
+        return productExporter.export();
+    }
+
+    @Override
+    public Flux<ProductImportProgressDto> importCatalog(Flux<DataBuffer> body, MediaType contentType) {
+        return productImporter.run(body, contentType);
+    }
+
+    @Override
+    public List<ProductSuggestionDto> suggest(String query, int limit) {
+        return productSuggestIndex.suggest(query, limit);
+    }
+
+    @Override
+    public ProductCacheStatsDto cacheStats() {
+        return productCache.stats();
+    }
+
+    /**
+     * Invalidates a product whose images changed, by its id as well as its
+     * uuid, and tells the read side.
+     */
+    private Mono<Void> imagesChanged(UUID productUuid) {
+        return productRepo.findByUuid(productUuid)
+                .doOnNext(product -> productCache.invalidate(product.getId(), product.getUuid()))
+                .then(Mono.fromRunnable(() -> events.publishEvent(ProductChangedEvent.of(productUuid))));
+    }
+
+    private Mono<Cursor> decodeCursor(String after) {
+        return Cursor.decode(after)
+                .<ProductError>okOrElse(() -> ProductError.InvalidCursorError.build(after))
+                .toMono();
+    }
+
+    private Flux<FullProductDto> loadFullProducts(Flux<Product> products) {
+        return products.buffer(VIEW_CHUNK)
+                .concatMap(productViewStore::load);
+    }
+
+    /**
+     * @return the page in slices, see {@link CursorPage#slice}.
+     */
+    private Flux<CursorPage<FullProductDto>> loadFullProducts(Flux<Product> products,
+            Function<Product, Cursor> toCursor) {
+        return products.buffer(VIEW_CHUNK)
+                .concatMap(chunk -> productViewStore.load(chunk)
+                        .collectList()
+                        .map(items -> CursorPage.slice(chunk, items, toCursor)));
     }
 
 }
@@ -0,0 +1,82 @@
+package com.ecommerce.nashtech.modules.product.service;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.ecommerce.nashtech.modules.product.dto.StockItemDto;
+import com.ecommerce.nashtech.modules.product.error.ProductError;
+import com.ecommerce.nashtech.modules.product.internal.stock.HotStockLedger;
+import com.ecommerce.nashtech.modules.product.internal.stock.StockChanges;
+import com.ecommerce.nashtech.modules.product.internal.stock.StockReservationStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = PRIVATE)
+public class StockService implements IStockService {
+
+    StockReservationStore store;
+    HotStockLedger hotStockLedger;
+    StockChanges stockChanges;
+    TransactionalOperator txOperator;
+
+    @Override
+    public Mono<UUID> reserve(List<StockItemDto> items) {
+        var invalid = items.stream()
+                .filter(item -> item.productId() == null || item.quantity() == null || item.quantity() <= 0)
+                .findFirst();
+        if (invalid.isPresent()) {
+            return Mono.error(ProductError.InvalidQuantityError.build(
+                    invalid.get().productId(), invalid.get().quantity()));
+        }
+        var quantities = items.stream().collect(Collectors.groupingBy(
+                StockItemDto::productId, TreeMap::new, Collectors.summingInt(StockItemDto::quantity)));
+        var hot = new TreeMap<Long, Integer>();
+        var cold = new TreeMap<Long, Integer>();
+        quantities.forEach((productId, quantity) -> (hotStockLedger.isHot(productId) ? hot : cold)
+                .put(productId, quantity));
+
+        var reservationId = UUID.randomUUID();
+        var reserveCold = store.reserve(reservationId, cold)
+                .as(txOperator::transactional)
+                .doOnNext(stockChanges::publish);
+        // The hot items are committed one product at a time, so any that are
+        // granted are released again when another one is not
+        var reserveHot = Flux.fromIterable(hot.entrySet())
+                .flatMap(entry -> hotStockLedger.reserve(reservationId, entry.getKey(), entry.getValue())
+                        .filter(granted -> !granted)
+                        .map(granted -> entry.getKey()))
+                .collectList()
+                .onErrorResume(err -> release(reservationId).then(Mono.error(err)))
+                .flatMap(refused -> refused.isEmpty()
+                        ? Mono.<Void>empty()
+                        : release(reservationId).then(Mono.error(ProductError.InsufficientStockError.build(refused))));
+        return reserveCold
+                .then(reserveHot)
+                .thenReturn(reservationId);
+    }
+
+    @Override
+    public Mono<Void> confirm(UUID reservationId) {
+        return store.confirm(reservationId)
+                .filter(confirmed -> confirmed > 0)
+                .switchIfEmpty(Mono.error(ProductError.ReservationNotFoundError.build(reservationId)))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(UUID reservationId) {
+        return store.release(reservationId).then();
+    }
+}
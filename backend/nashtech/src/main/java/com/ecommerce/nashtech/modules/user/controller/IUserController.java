@@ -7,6 +7,7 @@ import org.springframework.web.server.ServerWebExchange;
 
 import com.ecommerce.nashtech.modules.user.dto.CreateUserDto;
 import com.ecommerce.nashtech.modules.user.dto.UpdateUserDto;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 
@@ -29,7 +30,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> getUserByUuid(
+    public Mono<ResponseEntity<BaseResponse>> getUserByUuid(
             ServerWebExchange exchange,
             @Parameter(description = "UUID of the user to retrieve", required = true, schema = @Schema(type = "string", format = "uuid", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")) UUID uuid);
 
@@ -41,7 +42,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> getUserByUsername(
+    public Mono<ResponseEntity<BaseResponse>> getUserByUsername(
             ServerWebExchange exchange,
             @Parameter(description = "Username of the user to retrieve", required = true, schema = @Schema(type = "string", example = "username")) String username);
 
@@ -52,7 +53,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> getUserByEmail(
+    public Mono<ResponseEntity<BaseResponse>> getUserByEmail(
             ServerWebExchange exchange,
             @Parameter(description = "Email of the user to retrieve", required = true, schema = @Schema(type = "string", format = "email", example = "user@email.com")) String email);
 
@@ -62,7 +63,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    Mono<ResponseEntity<String>> getCurrentUser(
+    Mono<ResponseEntity<BaseResponse>> getCurrentUser(
             ServerWebExchange exchange);
 
     @Operation(summary = "Create a new user", description = "Create a new user")
@@ -73,7 +74,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> createUser(
+    public Mono<ResponseEntity<BaseResponse>> createUser(
             ServerWebExchange exchange,
             @Parameter(description = "User information to create", required = true, schema = @Schema(implementation = CreateUserDto.class)) CreateUserDto dto);
 
@@ -85,7 +86,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> updateUserByUuid(
+    public Mono<ResponseEntity<BaseResponse>> updateUserByUuid(
             ServerWebExchange exchange,
             @Parameter(description = "UUID of the user to update", required = true, schema = @Schema(type = "string", format = "uuid", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")) UUID uuid,
             @Parameter(description = "User information to update", required = true, schema = @Schema(implementation = UpdateUserDto.class)) UpdateUserDto dto);
@@ -98,7 +99,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> updateUserByUsername(
+    public Mono<ResponseEntity<BaseResponse>> updateUserByUsername(
             ServerWebExchange exchange,
             @Parameter(description = "Username of the user to update", required = true, schema = @Schema(type = "string", example = "username")) String username,
             @Parameter(description = "User information to update", required = true, schema = @Schema(implementation = UpdateUserDto.class)) UpdateUserDto dto);
@@ -111,7 +112,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "422", description = "Unprocessable entity", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> updateUserByEmail(
+    public Mono<ResponseEntity<BaseResponse>> updateUserByEmail(
             ServerWebExchange exchange,
             @Parameter(description = "Email of the user to update", required = true, schema = @Schema(type = "string", format = "email", example = "user@email.com")) String email,
             @Parameter(description = "User information to update", required = true, schema = @Schema(implementation = UpdateUserDto.class)) UpdateUserDto dto);
@@ -123,7 +124,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> deleteUserByUuid(
+    public Mono<ResponseEntity<BaseResponse>> deleteUserByUuid(
             ServerWebExchange exchange,
             UUID uuid);
 
@@ -134,7 +135,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> deleteUserByUsername(
+    public Mono<ResponseEntity<BaseResponse>> deleteUserByUsername(
             ServerWebExchange exchange,
             @Parameter(description = "Username of the user to delete", required = true, schema = @Schema(type = "string", example = "username")) String username);
 
@@ -145,7 +146,7 @@ public interface IUserController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public Mono<ResponseEntity<String>> deleteUserByEmail(
+    public Mono<ResponseEntity<BaseResponse>> deleteUserByEmail(
             ServerWebExchange exchange,
             @Parameter(description = "Email of the user to delete", required = true, schema = @Schema(type = "string", format = "email")) String email);
 }
@@ -21,6 +21,7 @@ import com.ecommerce.nashtech.modules.user.error.UserError;
 import com.ecommerce.nashtech.modules.user.service.UserService;
 import com.ecommerce.nashtech.security.jwt.JwtUtils;
 import com.ecommerce.nashtech.shared.enums.UserFinder;
+import com.ecommerce.nashtech.shared.response.BaseResponse;
 import com.ecommerce.nashtech.shared.response.ErrorResponse;
 import com.ecommerce.nashtech.shared.response.SuccessfulResponse;
 import com.ecommerce.nashtech.shared.util.Router;
@@ -42,7 +43,7 @@ public class UserController implements IUserController {
 
     @Override
     @GetMapping("/uuid/{uuid}")
-    public Mono<ResponseEntity<String>> getUserByUuid(
+    public Mono<ResponseEntity<BaseResponse>> getUserByUuid(
             ServerWebExchange exchange,
             @PathVariable UUID uuid) {
         var instance = router.getURI("uuid", uuid);
@@ -60,7 +61,7 @@ public class UserController implements IUserController {
 
     @Override
     @GetMapping("/username/{username}")
-    public Mono<ResponseEntity<String>> getUserByUsername(
+    public Mono<ResponseEntity<BaseResponse>> getUserByUsername(
             ServerWebExchange exchange,
             @PathVariable String username) {
         var instance = router.getURI("username", username);
@@ -77,7 +78,7 @@ public class UserController implements IUserController {
     }
 
     @GetMapping(value = "/me")
-    public Mono<ResponseEntity<String>> getCurrentUser(
+    public Mono<ResponseEntity<BaseResponse>> getCurrentUser(
             ServerWebExchange exchange) {
         var instance = router.getURI("me");
 
@@ -103,7 +104,7 @@ public class UserController implements IUserController {
 
     @Override
     @GetMapping("/email/{email}")
-    public Mono<ResponseEntity<String>> getUserByEmail(
+    public Mono<ResponseEntity<BaseResponse>> getUserByEmail(
             ServerWebExchange exchange,
             @PathVariable String email) {
         var instance = router.getURI("email", email);
@@ -121,7 +122,7 @@ public class UserController implements IUserController {
 
     @Override
     @PostMapping()
-    public Mono<ResponseEntity<String>> createUser(
+    public Mono<ResponseEntity<BaseResponse>> createUser(
             ServerWebExchange exchange,
             @RequestBody CreateUserDto dto) {
         var instance = router.getURI("create");
@@ -138,7 +139,7 @@ public class UserController implements IUserController {
 
     @Override
     @PatchMapping("/uuid/{uuid}")
-    public Mono<ResponseEntity<String>> updateUserByUuid(
+    public Mono<ResponseEntity<BaseResponse>> updateUserByUuid(
             ServerWebExchange exchange,
             @PathVariable UUID uuid,
             @RequestBody UpdateUserDto dto) {
@@ -157,7 +158,7 @@ public class UserController implements IUserController {
 
     @Override
     @PatchMapping(value = "/username/{username}", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<String>> updateUserByUsername(
+    public Mono<ResponseEntity<BaseResponse>> updateUserByUsername(
             ServerWebExchange exchange,
             @PathVariable String username,
             @RequestBody UpdateUserDto dto) {
@@ -176,7 +177,7 @@ public class UserController implements IUserController {
 
     @Override
     @PatchMapping(value = "/email/{email}", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<String>> updateUserByEmail(
+    public Mono<ResponseEntity<BaseResponse>> updateUserByEmail(
             ServerWebExchange exchange,
             @PathVariable String email,
             @RequestBody UpdateUserDto dto) {
@@ -195,7 +196,7 @@ public class UserController implements IUserController {
 
     @Override
     @DeleteMapping(value = "/uuid/{uuid}", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<String>> deleteUserByUuid(
+    public Mono<ResponseEntity<BaseResponse>> deleteUserByUuid(
             ServerWebExchange exchange,
             @PathVariable UUID uuid) {
         var instance = router.getURI("uuid", uuid);
@@ -213,7 +214,7 @@ public class UserController implements IUserController {
 
     @Override
     @DeleteMapping("/username/{username}")
-    public Mono<ResponseEntity<String>> deleteUserByUsername(
+    public Mono<ResponseEntity<BaseResponse>> deleteUserByUsername(
             ServerWebExchange exchange,
             @PathVariable String username) {
         var instance = router.getURI("username", username);
@@ -231,7 +232,7 @@ public class UserController implements IUserController {
 
     @Override
     @DeleteMapping("/email/{email}")
-    public Mono<ResponseEntity<String>> deleteUserByEmail(
+    public Mono<ResponseEntity<BaseResponse>> deleteUserByEmail(
             ServerWebExchange exchange,
             @PathVariable String email) {
         var instance = router.getURI("email", email);
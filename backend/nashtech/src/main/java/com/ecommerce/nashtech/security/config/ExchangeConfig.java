@@ -49,6 +49,16 @@ public class ExchangeConfig implements Consumer<AuthorizeExchangeSpec> {
                 .pathMatchers(HttpMethod.PATCH, router.getURI("products", "uuid", "{uuid}"))
                 .access((authentication, context) -> CommonAuthorizationDecision.User.build(authentication, context)
                         .byUUid())
+                .pathMatchers(HttpMethod.GET, router.getURI("products", "cache", "stats"))
+                .hasAuthority(RoleEnum.AdminRole.getName())
+                .pathMatchers(HttpMethod.GET, router.getURI("products", "export"))
+                .hasAuthority(RoleEnum.AdminRole.getName())
+                .pathMatchers(HttpMethod.POST, router.getURI("products", "import"))
+                .hasAuthority(RoleEnum.AdminRole.getName())
+                .pathMatchers(HttpMethod.POST, router.getURI("images", "uploads"))
+                .hasAuthority(RoleEnum.AdminRole.getName())
+                .pathMatchers(HttpMethod.POST, router.getURI("images", "uploads", "{uuid}", "complete"))
+                .hasAuthority(RoleEnum.AdminRole.getName())
                 .anyExchange().permitAll();
     }
 
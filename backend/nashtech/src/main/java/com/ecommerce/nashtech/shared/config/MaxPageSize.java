@@ -0,0 +1,31 @@
+package com.ecommerce.nashtech.shared.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Raises or lowers the largest {@code size} a {@code Pageable} handler
+ * parameter accepts. {@link PaginationConfiguration} rejects larger sizes
+ * with {@code 400 Bad Request}; without this annotation the limit is
+ * {@link PaginationConfiguration#MAX_SIZE}.
+ * <p>
+ * Streamed product listings load and write their items in chunks of a few
+ * dozen rows, so their memory use does not grow with the page size and
+ * they can afford a higher limit. Each item is still read and serialized,
+ * so the limit bounds the work of a single request.
+ * </p>
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxPageSize {
+
+    /**
+     * @return the largest accepted page size, by default the limit for
+     *         streamed endpoints.
+     */
+    int value() default 1000;
+}
@@ -1,6 +1,8 @@
 package com.ecommerce.nashtech.shared.config;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.MethodParameter;
@@ -16,13 +18,14 @@ import org.springframework.data.domain.Sort;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
 @FieldDefaults(level = lombok.AccessLevel.PUBLIC, makeFinal = true)
 public class PaginationConfiguration implements HandlerMethodArgumentResolver {
     String DEFAULT_PAGE = "0";
     String DEFAULT_SIZE = "10";
-    Integer MAX_SIZE = 20;
+    Integer MAX_SIZE = 100;
 
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
@@ -37,25 +40,46 @@ public class PaginationConfiguration implements HandlerMethodArgumentResolver {
         List<String> sizeValues = serverWebExchange.getRequest().getQueryParams().getOrDefault("size",
                 List.of(DEFAULT_SIZE));
 
-        String page = pageValues.get(0);
+        int page;
+        int size;
+        try {
+            page = Integer.parseInt(pageValues.get(0).trim());
+            size = Integer.parseInt(sizeValues.get(0).trim());
+        } catch (NumberFormatException e) {
+            return Mono.error(new ServerWebInputException("page and size must be whole numbers"));
+        }
+        MaxPageSize limit = methodParameter.getParameterAnnotation(MaxPageSize.class);
+        int maxSize = limit == null ? MAX_SIZE : limit.value();
+        if (page < 0) {
+            return Mono.error(new ServerWebInputException("page must be zero or positive"));
+        }
+        if (size < 1 || size > maxSize) {
+            return Mono.error(new ServerWebInputException("size must be between 1 and " + maxSize));
+        }
 
         String sortParam = serverWebExchange.getRequest().getQueryParams().getFirst("sort");
         Sort sort = Sort.unsorted();
 
         if (sortParam != null) {
+            Sortable sortable = methodParameter.getParameterAnnotation(Sortable.class);
             String[] parts = sortParam.split(",");
-            if (parts.length == 2) {
-                String property = parts[0];
-                Sort.Direction direction = Sort.Direction.fromString(parts[1]);
-                sort = Sort.by(direction, property);
+            String property = parts[0].trim();
+            if (sortable == null || !Arrays.asList(sortable.value()).contains(property) || parts.length > 2) {
+                return Mono.error(new ServerWebInputException("Unsupported sort '" + sortParam + "', sortable fields: "
+                        + (sortable == null ? "none" : String.join(", ", sortable.value()))));
+            }
+            Optional<Sort.Direction> direction = parts.length == 2
+                    ? Sort.Direction.fromOptionalString(parts[1].trim())
+                    : Optional.of(Sort.Direction.ASC);
+            if (direction.isEmpty()) {
+                return Mono.error(new ServerWebInputException("Unsupported sort direction '" + parts[1] + "'"));
+            }
+            sort = Sort.by(direction.get(), property);
+            if (!property.equals(sortable.tieBreaker())) {
+                sort = sort.and(Sort.by(direction.get(), sortable.tieBreaker()));
             }
         }
 
-        return Mono.just(
-                PageRequest.of(
-                        Integer.parseInt(page),
-                        Math.min(Integer.parseInt(sizeValues.get(0)),
-                                MAX_SIZE),
-                        sort));
+        return Mono.just(PageRequest.of(page, size, sort));
     }
 }
@@ -0,0 +1,34 @@
+package com.ecommerce.nashtech.shared.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which properties a {@code Pageable} handler parameter may be
+ * sorted on. {@link PaginationConfiguration} rejects any other
+ * {@code sort} with {@code 400 Bad Request}, and an unannotated parameter
+ * accepts no sort at all.
+ * <p>
+ * Only list properties that an index can return in order for the
+ * endpoint's query, so sorted pages never fall back to a full sort.
+ * </p>
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Sortable {
+
+    /**
+     * @return the entity properties the endpoint may be sorted on.
+     */
+    String[] value();
+
+    /**
+     * @return a unique property appended, in the same direction, to every
+     *         sort so that equal keys keep a stable order across pages.
+     */
+    String tieBreaker() default "id";
+}
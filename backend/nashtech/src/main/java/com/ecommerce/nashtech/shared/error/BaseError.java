@@ -16,6 +16,6 @@ public abstract class BaseError extends RuntimeException {
     String code;
 
     public String toJSON() {
-        return JSON.stringify(this).unwrap();
+        return JSON.compact(this).unwrap();
     }
 }
@@ -7,16 +7,25 @@ import com.ecommerce.nashtech.shared.types.Result;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class JSON {
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectWriter compactWriter = mapper.writer();
+    private static final ObjectWriter prettyWriter = mapper.writerWithDefaultPrettyPrinter();
 
     public static Result<String, JsonProcessingException> stringify(Object obj) {
         return Result.wrap(() ->
-            mapper.writerWithDefaultPrettyPrinter().writeValueAsString(obj)
+            prettyWriter.writeValueAsString(obj)
+        );
+    }
+
+    public static Result<String, JsonProcessingException> compact(Object obj) {
+        return Result.wrap(() ->
+            compactWriter.writeValueAsString(obj)
         );
     }
 
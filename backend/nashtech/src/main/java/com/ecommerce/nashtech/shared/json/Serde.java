@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -15,16 +16,31 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 
 import io.r2dbc.postgresql.codec.Json;
 
+/**
+ * Maps Postgres {@code json}/{@code jsonb} values to and from JSON documents
+ * without building a tree.
+ * <p>
+ * Incoming documents are validated token by token while being copied into
+ * a compact byte array, so whatever reaches the database is well-formed.
+ * Outgoing values come from that write path or from Postgres itself and are
+ * written through as raw JSON.
+ * </p>
+ */
 @JsonComponent
 @Component
 public class Serde {
+    private static final JsonFactory FACTORY = new JsonFactory();
 
     public static class Deserializer extends JsonDeserializer<Json> {
 
         @Override
         public Json deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-            var value = ctxt.readTree(p);
-            return Json.of(value.toString());
+            try (var buffer = new ByteArrayBuilder();
+                    var generator = FACTORY.createGenerator(buffer)) {
+                generator.copyCurrentStructure(p);
+                generator.flush();
+                return Json.of(buffer.toByteArray());
+            }
         }
     }
 
@@ -32,12 +48,8 @@ public class Serde {
 
         @Override
         public void serialize(Json value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-            var text = value.asString();
-            JsonFactory factory = new JsonFactory();
-            JsonParser parser = factory.createParser(text);
-            var node = gen.getCodec().readTree(parser);
-            serializers.defaultSerializeValue(node, gen);
+            gen.writeRawValue(value.asString());
         }
 
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,7 @@ import com.ecommerce.nashtech.shared.json.JSON;
 
 public interface BaseResponse {
     default public String toJSON() {
-        return JSON.stringify(this).unwrapOr("{}");
+        return JSON.compact(this).unwrapOr("{}");
     }
 
 }
@@ -0,0 +1,88 @@
+package com.ecommerce.nashtech.shared.response;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Validators of a resource version, used to answer conditional GETs.
+ * <p>
+ * The version is looked up before the response body is built. When the
+ * request's {@code If-None-Match} or {@code If-Modified-Since} still
+ * matches it, a bodiless {@code 304 Not Modified} is returned and the body
+ * supplier is never called. Otherwise the body is built and the validators
+ * are attached to successful responses.
+ * </p>
+ *
+ * @param etag         A strong entity tag, quoted.
+ * @param lastModified The time of the last change.
+ */
+public record ConditionalResponse(String etag, Instant lastModified) {
+
+    /**
+     * Builds validators from a version timestamp and the values that
+     * identify the representation (id, page, counts, ...).
+     *
+     * @param lastModifiedMillis Epoch milliseconds of the last change.
+     * @param parts              Values hashed into the entity tag together
+     *                           with the timestamp.
+     * @return the validators.
+     */
+    public static ConditionalResponse of(long lastModifiedMillis, Object... parts) {
+        var key = lastModifiedMillis + ":" + Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+        var hash = DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+        return new ConditionalResponse("\"" + hash + "\"", Instant.ofEpochMilli(lastModifiedMillis));
+    }
+
+    /**
+     * Answers with {@code 304} if {@code version} matches the request,
+     * otherwise with {@code body}. An empty {@code version} (for example an
+     * unknown id) always falls through to {@code body}, which produces the
+     * usual error response.
+     *
+     * @param exchange The current exchange.
+     * @param version  The current version of the resource.
+     * @param body     Builds the full response.
+     * @return the response.
+     */
+    public static Mono<ResponseEntity<BaseResponse>> respond(
+            ServerWebExchange exchange,
+            Mono<ConditionalResponse> version,
+            Supplier<Mono<ResponseEntity<BaseResponse>>> body) {
+        return version
+                .flatMap(validators -> validators.respond(exchange, body))
+                .switchIfEmpty(Mono.defer(body));
+    }
+
+    public Mono<ResponseEntity<BaseResponse>> respond(
+            ServerWebExchange exchange,
+            Supplier<Mono<ResponseEntity<BaseResponse>>> body) {
+        if (exchange.checkNotModified(etag, lastModified)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .build());
+        }
+        return Mono.defer(body).map(response -> {
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return response;
+            }
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .body(response.getBody());
+        });
+    }
+}
@@ -47,19 +47,19 @@ public class ErrorResponse implements BaseResponse {
                 .buildResponse();
     }
 
-    public ResponseEntity<String> asResponse() {
-        return ResponseEntity.badRequest().body(toJSON());
+    public ResponseEntity<BaseResponse> asResponse() {
+        return ResponseEntity.badRequest().body(this);
     }
 
-    public ResponseEntity<String> asResponse(HttpStatusCode status) {
-        return ResponseEntity.status(status).body(toJSON());
+    public ResponseEntity<BaseResponse> asResponse(HttpStatusCode status) {
+        return ResponseEntity.status(status).body(this);
     }
 
-    public Mono<ResponseEntity<String>> asMonoResponse() {
+    public Mono<ResponseEntity<BaseResponse>> asMonoResponse() {
         return Mono.just(asResponse());
     }
 
-    public Mono<ResponseEntity<String>> asMonoResponse(HttpStatusCode status) {
+    public Mono<ResponseEntity<BaseResponse>> asMonoResponse(HttpStatusCode status) {
         return Mono.just(asResponse(status));
     }
 
@@ -0,0 +1,113 @@
+package com.ecommerce.nashtech.shared.response;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.ecommerce.nashtech.shared.error.BaseError;
+import com.ecommerce.nashtech.shared.types.Cursor;
+import com.ecommerce.nashtech.shared.types.CursorPage;
+import com.ecommerce.nashtech.shared.types.Option;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The elements of a streamed (NDJSON) listing.
+ * <p>
+ * Every row is written as an {@link Item} as soon as it is available, and
+ * the stream ends with a single {@link Trailer} carrying the page metadata.
+ * The total count behind the trailer is queried concurrently with the rows,
+ * so it does not delay the first item. An error after the first item can no
+ * longer change the status code, so it is written as a final
+ * {@link ErrorResponse} line instead.
+ * </p>
+ */
+public sealed interface StreamingResponse extends BaseResponse
+        permits StreamingResponse.Item, StreamingResponse.Trailer {
+
+    record Item<T>(T item) implements StreamingResponse {
+    }
+
+    /**
+     * @param page       Page metadata, {@code null} for unpaged listings.
+     * @param nextCursor The cursor of the following page, if keyset paginated.
+     */
+    record Trailer(
+            SuccessfulResponse.WithPageableData.Metadata page,
+            String nextCursor,
+            String instance,
+            String timestamp) implements StreamingResponse {
+
+        static Trailer of(SuccessfulResponse.WithPageableData.Metadata page, String nextCursor, String instance) {
+            return new Trailer(page, nextCursor, instance, Instant.now().toString());
+        }
+    }
+
+    /**
+     * Streams an offset-paginated listing.
+     */
+    static <T> Flux<BaseResponse> of(Flux<T> items, Mono<Long> total, Pageable pageable, String instance) {
+        var trailer = total.map(count -> Trailer.of(metadata(pageable, count), null, instance));
+        return stream(items, trailer, instance);
+    }
+
+    /**
+     * Streams a keyset-paginated listing read in slices, see
+     * {@link CursorPage#slice}. Items are written as each slice arrives; the
+     * next cursor is only known after the last one, so the trailer follows
+     * them while the total is still queried alongside.
+     */
+    static <T> Flux<BaseResponse> of(Flux<CursorPage<T>> slices, Mono<Long> total, int size, String instance) {
+        return Flux.defer(() -> {
+            var seen = new AtomicInteger();
+            var last = new AtomicReference<Option<Cursor>>(Option.none());
+            var counted = total.cache();
+            var items = slices
+                    .doOnNext(slice -> {
+                        seen.addAndGet(slice.items().size());
+                        last.set(slice.next());
+                    })
+                    .concatMapIterable(CursorPage::items)
+                    .<BaseResponse>map(Item::new);
+            var trailer = Mono.defer(() -> counted.map(count -> Trailer.of(
+                    metadata(PageRequest.of(0, size), count),
+                    seen.get() < size ? null : last.get().mapOr(null, Cursor::encode),
+                    instance)));
+            return guard(Flux.mergeSequential(items, counted.then(Mono.<BaseResponse>empty()))
+                    .concatWith(trailer), instance);
+        });
+    }
+
+    /**
+     * Streams an unpaged listing.
+     */
+    static <T> Flux<BaseResponse> of(Flux<T> items, String instance) {
+        return stream(items, Mono.fromSupplier(() -> Trailer.of(null, null, instance)), instance);
+    }
+
+    private static SuccessfulResponse.WithPageableData.Metadata metadata(Pageable pageable, long total) {
+        var page = new PageImpl<>(List.of(), pageable, total);
+        return SuccessfulResponse.WithPageableData.Metadata.builder()
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalPages(page.getTotalPages())
+                .totalItems(page.getTotalElements())
+                .hasNext(page.hasNext())
+                .hasPrevious(page.hasPrevious())
+                .build();
+    }
+
+    private static <T> Flux<BaseResponse> stream(Flux<T> items, Mono<Trailer> trailer, String instance) {
+        return guard(Flux.<BaseResponse>mergeSequential(items.map(Item::new), trailer), instance);
+    }
+
+    private static Flux<BaseResponse> guard(Flux<BaseResponse> body, String instance) {
+        return body.onErrorResume(BaseError.class, e -> Mono.just(ErrorResponse.build(e, instance)));
+    }
+}
@@ -21,11 +21,11 @@ public interface SuccessfulResponse extends BaseResponse {
 
     String getTimestamp();
 
-    default ResponseEntity<String> asResponse() {
-        return ResponseEntity.ok(toJSON());
+    default ResponseEntity<BaseResponse> asResponse() {
+        return ResponseEntity.ok(this);
     }
 
-    default Mono<ResponseEntity<String>> asMonoResponse() {
+    default Mono<ResponseEntity<BaseResponse>> asMonoResponse() {
         return Mono.just(asResponse());
     }
 
@@ -72,10 +72,15 @@ public interface SuccessfulResponse extends BaseResponse {
 
         List<T> items;
         Metadata page;
+        String nextCursor;
         String instance;
         String timestamp;
 
         private WithPageableData(Page<T> pageData, String instance) {
+            this(pageData, instance, null);
+        }
+
+        private WithPageableData(Page<T> pageData, String instance, String nextCursor) {
             this.items = pageData.getContent();
             this.page = Metadata.builder()
                     .page(pageData.getNumber())
@@ -85,6 +90,7 @@ public interface SuccessfulResponse extends BaseResponse {
                     .hasNext(pageData.hasNext())
                     .hasPrevious(pageData.hasPrevious())
                     .build();
+            this.nextCursor = nextCursor;
             this.instance = instance;
             this.timestamp = Instant.now().toString();
         }
@@ -102,6 +108,11 @@ public interface SuccessfulResponse extends BaseResponse {
             return new WithPageableData<>(pageData, instance);
         }
 
+        public static <T> WithPageableData<T> of(Page<T> pageData, String instance, String nextCursor) {
+            Objects.requireNonNull(pageData, "pageData must not be null");
+            return new WithPageableData<>(pageData, instance, nextCursor);
+        }
+
         @Override
         public String getInstance() {
             return instance;
@@ -115,6 +126,7 @@ public interface SuccessfulResponse extends BaseResponse {
         public static final class WithPageableDataBuilder<T> {
             private Page<T> pageData;
             private String instance;
+            private String nextCursor;
 
             private WithPageableDataBuilder() {
             }
@@ -129,9 +141,14 @@ public interface SuccessfulResponse extends BaseResponse {
                 return this;
             }
 
+            public WithPageableDataBuilder<T> nextCursor(String nextCursor) {
+                this.nextCursor = nextCursor;
+                return this;
+            }
+
             public WithPageableData<T> build() {
                 Objects.requireNonNull(pageData, "pageData must not be null");
-                return new WithPageableData<>(pageData, instance);
+                return new WithPageableData<>(pageData, instance, nextCursor);
             }
         }
     }
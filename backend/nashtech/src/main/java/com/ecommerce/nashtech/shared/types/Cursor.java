@@ -0,0 +1,74 @@
+package com.ecommerce.nashtech.shared.types;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor.
+ * <p>
+ * Points at the last row of a page as a {@code (key, id)} tuple, where
+ * {@code key} is the sort key of the listing (empty when the listing is
+ * ordered by {@code id} alone) and {@code id} breaks ties. Clients only ever
+ * see the encoded token.
+ * </p>
+ *
+ * @param key The sort key of the last row.
+ * @param id  The id of the last row.
+ */
+public record Cursor(String key, long id) {
+    private static final char SEPARATOR = ':';
+    private static final Cursor START = new Cursor("", 0L);
+
+    /**
+     * The cursor positioned before the first row.
+     *
+     * @return a cursor that matches every row.
+     */
+    public static Cursor start() {
+        return START;
+    }
+
+    public static Cursor of(long id) {
+        return new Cursor("", id);
+    }
+
+    public static Cursor of(String key, long id) {
+        return new Cursor(key == null ? "" : key, id);
+    }
+
+    /**
+     * Encodes the cursor into a URL-safe token.
+     *
+     * @return the opaque token.
+     */
+    public String encode() {
+        var raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     * A blank token yields {@link #start()}.
+     *
+     * @param token The token sent by the client.
+     * @return {@code Some} with the cursor, or {@code None} if the token is
+     *         malformed.
+     */
+    public static Option<Cursor> decode(String token) {
+        if (token == null || token.isBlank()) {
+            return Option.some(START);
+        }
+        return Result.wrap(() -> new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8))
+                .ignore()
+                .andThen(raw -> {
+                    int split = raw.lastIndexOf(SEPARATOR);
+                    if (split < 0) {
+                        return Option.none();
+                    }
+                    return Result.wrap(() -> Long.parseLong(raw.substring(split + 1)))
+                            .ignore()
+                            .filter(id -> id >= 0)
+                            .map(id -> new Cursor(raw.substring(0, split), id));
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.nashtech.shared.types;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A page of a keyset-paginated listing.
+ *
+ * @param items The rows of the page.
+ * @param next  The cursor of the following page, {@code None} on the last page.
+ * @param <T>   The type of the rows.
+ */
+public record CursorPage<T>(List<T> items, Option<Cursor> next) {
+
+    /**
+     * Joins the slices of one page, read in order with {@code LIMIT size}.
+     * Each slice carries the cursor of its own last row, see
+     * {@link #slice}.
+     *
+     * @param slices The slices of the page.
+     * @param size   The requested page size.
+     * @param <T>    The type of the rows.
+     * @return the page.
+     */
+    public static <T> Mono<CursorPage<T>> join(Flux<CursorPage<T>> slices, int size) {
+        return slices.collectList().map(list -> {
+            var items = new ArrayList<T>();
+            list.forEach(slice -> items.addAll(slice.items()));
+            if (items.isEmpty() || items.size() < size) {
+                return new CursorPage<>(items, Option.none());
+            }
+            return new CursorPage<>(items, list.get(list.size() - 1).next());
+        });
+    }
+
+    /**
+     * Builds one slice of a page that is emitted while it is still being
+     * read. Whether a following page exists is only known once the whole
+     * page has been read, so a slice always carries the cursor of its last
+     * row.
+     *
+     * @param rows     The rows of the slice, not empty.
+     * @param items    What the rows are served as.
+     * @param toCursor Extracts the cursor of a row.
+     * @param <R>      The type of the rows.
+     * @param <T>      The type of the items.
+     * @return the slice.
+     */
+    public static <R, T> CursorPage<T> slice(List<R> rows, List<T> items, Function<R, Cursor> toCursor) {
+        return new CursorPage<>(items, Option.some(toCursor.apply(rows.get(rows.size() - 1))));
+    }
+
+    public String nextToken() {
+        return next.mapOr(null, Cursor::encode);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.nashtech.shared.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent lookups of the same key into one in-flight
+ * {@link Mono}.
+ * <p>
+ * The first caller for a key starts the lookup; callers that arrive while
+ * it is running subscribe to the same result, value or error. The key is
+ * released as soon as the lookup terminates, so nothing is cached: the next
+ * call after that starts a fresh lookup. If every subscriber cancels, the
+ * lookup is cancelled too.
+ * </p>
+ * <p>
+ * The lookup runs in the Reactor context of the caller that started it.
+ * Only use it for reads whose result does not depend on the caller.
+ * </p>
+ *
+ * @param <K> The type of the lookup key, which must implement
+ *            {@code equals} and {@code hashCode}.
+ * @param <V> The type of the looked up value.
+ */
+public final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the in-flight lookup for {@code key}, starting it with
+     * {@code loader} if there is none.
+     *
+     * @param key    The lookup key.
+     * @param loader Creates the lookup; called at most once per flight.
+     * @return a {@code Mono} shared by every concurrent caller for the key.
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> start(k, loader)));
+    }
+
+    /**
+     * @return the number of lookups currently in flight.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private Mono<V> start(K key, Supplier<Mono<V>> loader) {
+        var self = new AtomicReference<Mono<V>>();
+        var flight = Mono.defer(loader)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(flight);
+        return flight;
+    }
+}
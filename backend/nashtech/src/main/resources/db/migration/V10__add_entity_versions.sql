@@ -0,0 +1,102 @@
+-- =========================
+-- Entity versions for conditional GET
+-- =========================
+
+-- Epoch milliseconds, the unit of products.updated_at
+CREATE OR REPLACE FUNCTION now_millis() RETURNS BIGINT AS $$
+    SELECT (extract(epoch FROM clock_timestamp()) * 1000)::BIGINT;
+$$ LANGUAGE sql VOLATILE;
+
+-- Strictly increasing, so two writes in the same millisecond still get
+-- different versions
+CREATE OR REPLACE FUNCTION touch_updated_at() RETURNS trigger AS $$
+BEGIN
+    IF NEW IS DISTINCT FROM OLD THEN
+        NEW.updated_at := GREATEST(OLD.updated_at + 1, NEW.updated_at, now_millis());
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE brands ADD COLUMN updated_at BIGINT NOT NULL DEFAULT now_millis();
+ALTER TABLE categories ADD COLUMN updated_at BIGINT NOT NULL DEFAULT now_millis();
+ALTER TABLE brand_product_counts ADD COLUMN updated_at BIGINT NOT NULL DEFAULT now_millis();
+ALTER TABLE category_product_counts ADD COLUMN updated_at BIGINT NOT NULL DEFAULT now_millis();
+
+CREATE TRIGGER trg_products_touch
+    BEFORE UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION touch_updated_at();
+
+CREATE TRIGGER trg_brands_touch
+    BEFORE UPDATE ON brands
+    FOR EACH ROW EXECUTE FUNCTION touch_updated_at();
+
+CREATE TRIGGER trg_categories_touch
+    BEFORE UPDATE ON categories
+    FOR EACH ROW EXECUTE FUNCTION touch_updated_at();
+
+CREATE TRIGGER trg_brand_product_counts_touch
+    BEFORE UPDATE ON brand_product_counts
+    FOR EACH ROW EXECUTE FUNCTION touch_updated_at();
+
+CREATE TRIGGER trg_category_product_counts_touch
+    BEFORE UPDATE ON category_product_counts
+    FOR EACH ROW EXECUTE FUNCTION touch_updated_at();
+
+-- A product's detail also shows its categories, images and brand name, so
+-- changes to those bump the product version
+CREATE OR REPLACE FUNCTION product_category_touch_trigger() RETURNS trigger AS $$
+BEGIN
+    UPDATE products p
+    SET updated_at = p.updated_at + 1
+    WHERE p.id IN (SELECT product_id FROM changed_rows);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_product_category_touch_insert
+    AFTER INSERT ON product_category
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_category_touch_trigger();
+
+CREATE TRIGGER trg_product_category_touch_delete
+    AFTER DELETE ON product_category
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_category_touch_trigger();
+
+CREATE OR REPLACE FUNCTION product_image_touch_trigger() RETURNS trigger AS $$
+BEGIN
+    UPDATE products p
+    SET updated_at = p.updated_at + 1
+    WHERE p.uuid IN (SELECT product_uuid FROM changed_rows);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_product_image_touch_insert
+    AFTER INSERT ON product_image
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_image_touch_trigger();
+
+CREATE TRIGGER trg_product_image_touch_delete
+    AFTER DELETE ON product_image
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_image_touch_trigger();
+
+-- Brand renames already rewrite the search document of the brand's
+-- products (V7), which bumps their version through trg_products_touch.
+-- Category renames do the same here.
+CREATE OR REPLACE FUNCTION categories_touch_products_trigger() RETURNS trigger AS $$
+BEGIN
+    UPDATE products p
+    SET updated_at = p.updated_at + 1
+    FROM product_category pc
+    WHERE pc.category_id = NEW.id AND p.id = pc.product_id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_categories_touch_products
+    AFTER UPDATE OF name ON categories
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION categories_touch_products_trigger();
@@ -0,0 +1,13 @@
+-- =========================
+-- Sorted listing indexes
+-- =========================
+
+-- Every sort gets id appended as a tie-breaker (see @Sortable), so each
+-- index ends in id and ORDER BY <key>, id is read in index order
+
+-- Search results sorted by price or creation time
+CREATE INDEX idx_product_price_id ON products(price, id);
+CREATE INDEX idx_product_created_at_id ON products(created_at, id);
+
+-- Products of a brand sorted by creation time
+CREATE INDEX idx_product_brand_created_at ON products(brand_id, created_at, id);
@@ -0,0 +1,84 @@
+-- =========================
+-- Product read model
+-- =========================
+
+-- One row per live product with everything FullProductDto shows, so product
+-- reads do not join brands, categories and images. Written only through
+-- refresh_product_view(), which ProductViewProjector calls on product and
+-- brand events.
+CREATE TABLE product_view (
+    product_id BIGINT PRIMARY KEY REFERENCES products(id) ON DELETE CASCADE,
+    uuid UUID UNIQUE NOT NULL,
+    brand_id BIGINT,
+    brand_name VARCHAR(255),
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    price NUMERIC(20, 2) NOT NULL,
+    stock_quantity INTEGER NOT NULL,
+    specifications JSONB,
+    type VARCHAR(50),
+    created_at BIGINT NOT NULL,
+    -- Copy of products.updated_at; a row is fresh while the two are equal
+    updated_at BIGINT NOT NULL,
+    category_names TEXT[] NOT NULL DEFAULT '{}',
+    image_uuids UUID[] NOT NULL DEFAULT '{}'
+);
+
+CREATE INDEX idx_product_view_brand ON product_view(brand_id);
+
+-- Re-projects the given products and drops the rows of deleted ones. An
+-- older snapshot never overwrites a newer row, so concurrent refreshes of
+-- the same product settle on the latest version.
+CREATE OR REPLACE FUNCTION refresh_product_view(p_ids BIGINT[]) RETURNS INTEGER AS $$
+DECLARE
+    refreshed INTEGER;
+BEGIN
+    DELETE FROM product_view v
+    WHERE v.product_id = ANY(p_ids)
+    AND NOT EXISTS (
+        SELECT 1 FROM products p
+        WHERE p.id = v.product_id AND p.is_deleted IS NOT TRUE
+    );
+
+    INSERT INTO product_view (product_id, uuid, brand_id, brand_name, name, description, price,
+        stock_quantity, specifications, type, created_at, updated_at, category_names, image_uuids)
+    SELECT p.id, p.uuid, p.brand_id, b.name, p.name, p.description, p.price,
+        p.stock_quantity, p.specifications, p.type, p.created_at, p.updated_at,
+        ARRAY(
+            SELECT c.name::TEXT
+            FROM product_category pc
+            INNER JOIN categories c ON c.id = pc.category_id
+            WHERE pc.product_id = p.id
+            ORDER BY c.id
+        ),
+        ARRAY(
+            SELECT pi.image_uuid
+            FROM product_image pi
+            WHERE pi.product_uuid = p.uuid
+            ORDER BY pi.id
+        )
+    FROM products p
+    LEFT JOIN brands b ON b.id = p.brand_id
+    WHERE p.id = ANY(p_ids) AND p.is_deleted IS NOT TRUE
+    ON CONFLICT (product_id) DO UPDATE SET
+        brand_id = EXCLUDED.brand_id,
+        brand_name = EXCLUDED.brand_name,
+        name = EXCLUDED.name,
+        description = EXCLUDED.description,
+        price = EXCLUDED.price,
+        stock_quantity = EXCLUDED.stock_quantity,
+        specifications = EXCLUDED.specifications,
+        type = EXCLUDED.type,
+        created_at = EXCLUDED.created_at,
+        updated_at = EXCLUDED.updated_at,
+        category_names = EXCLUDED.category_names,
+        image_uuids = EXCLUDED.image_uuids
+    WHERE product_view.updated_at <= EXCLUDED.updated_at;
+
+    GET DIAGNOSTICS refreshed = ROW_COUNT;
+    RETURN refreshed;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Backfill
+SELECT refresh_product_view(ARRAY(SELECT id FROM products));
@@ -0,0 +1,24 @@
+-- =========================
+-- Stock reservations
+-- =========================
+
+-- Stock held for a cart or checkout. products.stock_quantity is the stock
+-- still available, so a reservation has already been subtracted from it and
+-- is added back when it is released or expires. Confirming a reservation
+-- only deletes its rows.
+CREATE TABLE stock_reservations (
+    reservation_id UUID NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    expires_at BIGINT NOT NULL,
+    PRIMARY KEY (reservation_id, product_id)
+);
+
+-- Expiry sweep
+CREATE INDEX idx_stock_reservations_expires_at ON stock_reservations(expires_at);
+
+-- Reservations only ever decrement with a guard, so this never fires for
+-- them; it stops any other write path from overselling. Existing rows are
+-- not checked.
+ALTER TABLE products
+    ADD CONSTRAINT chk_products_stock_quantity CHECK (stock_quantity >= 0) NOT VALID;
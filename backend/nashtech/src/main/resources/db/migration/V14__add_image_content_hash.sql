@@ -0,0 +1,7 @@
+-- =========================
+-- Image content hash
+-- =========================
+
+-- Hex SHA-256 of the stored object, computed while the upload streams
+-- through. NULL for images uploaded before it was recorded.
+ALTER TABLE images ADD COLUMN content_hash CHAR(64);
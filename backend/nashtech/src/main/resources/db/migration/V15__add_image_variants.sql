@@ -0,0 +1,18 @@
+-- =========================
+-- Image variants
+-- =========================
+
+-- Resized and re-encoded copies of an image, generated on first request and
+-- stored next to the original under a deterministic object key
+CREATE TABLE image_variants (
+    id BIGSERIAL PRIMARY KEY,
+    image_id BIGINT NOT NULL REFERENCES images(id) ON DELETE CASCADE,
+    width INTEGER NOT NULL,
+    height INTEGER NOT NULL,
+    format VARCHAR(16) NOT NULL,  -- e.g., 'jpeg'
+    object_key VARCHAR(255) UNIQUE NOT NULL,
+    mime_type VARCHAR(255) NOT NULL,
+    size BIGINT NOT NULL,
+    created_at BIGINT NOT NULL DEFAULT now_millis(),
+    UNIQUE (image_id, width, format)
+);
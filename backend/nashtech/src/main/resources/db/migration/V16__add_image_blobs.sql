@@ -0,0 +1,62 @@
+-- =========================
+-- Content-addressed image blobs
+-- =========================
+
+-- One stored object per distinct content. Images uploaded with the same
+-- bytes share a blob instead of each storing a copy.
+CREATE TABLE image_blobs (
+    content_hash CHAR(64) PRIMARY KEY,  -- Hex SHA-256 of the object
+    object_key VARCHAR(255) UNIQUE NOT NULL,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0 CHECK (ref_count >= 0),
+    created_at BIGINT NOT NULL DEFAULT now_millis(),
+    released_at BIGINT  -- When ref_count last dropped to 0
+);
+
+-- Unreferenced blobs, oldest release first, for the sweeper
+CREATE INDEX idx_image_blobs_released ON image_blobs(released_at) WHERE ref_count = 0;
+
+-- NULL for images stored under their own key: uploads under an explicit,
+-- overwritable key and direct uploads
+ALTER TABLE images ADD COLUMN blob_hash CHAR(64) REFERENCES image_blobs(content_hash);
+
+CREATE INDEX idx_images_blob_hash ON images(blob_hash);
+
+-- ref_count always equals the number of images pointing at the blob
+CREATE OR REPLACE FUNCTION image_blob_refs_trigger() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.blob_hash IS NOT NULL THEN
+        UPDATE image_blobs
+        SET ref_count = ref_count - 1,
+            released_at = CASE WHEN ref_count = 1 THEN now_millis() ELSE released_at END
+        WHERE content_hash = OLD.blob_hash;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.blob_hash IS NOT NULL THEN
+        UPDATE image_blobs
+        SET ref_count = ref_count + 1,
+            released_at = NULL
+        WHERE content_hash = NEW.blob_hash;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_images_blob_refs
+    AFTER INSERT OR DELETE OR UPDATE OF blob_hash ON images
+    FOR EACH ROW EXECUTE FUNCTION image_blob_refs_trigger();
+
+-- Existing UUID-keyed images with a known hash share the oldest copy of
+-- their content. The newer copies are left in storage untouched.
+INSERT INTO image_blobs (content_hash, object_key, size)
+SELECT DISTINCT ON (content_hash) content_hash, object_key, size
+FROM images
+WHERE content_hash IS NOT NULL
+AND object_key = uuid::text
+ORDER BY content_hash, uploaded_at, id;
+
+UPDATE images i
+SET blob_hash = b.content_hash,
+    object_key = b.object_key
+FROM image_blobs b
+WHERE i.content_hash = b.content_hash
+AND i.object_key = i.uuid::text;
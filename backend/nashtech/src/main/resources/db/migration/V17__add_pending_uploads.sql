@@ -0,0 +1,16 @@
+-- =========================
+-- Pending direct uploads
+-- =========================
+
+-- Upload policies issued to clients and not yet completed. Completion
+-- consumes the row; rows left past their expiry are swept together with
+-- whatever object the client managed to upload.
+CREATE TABLE pending_uploads (
+    uuid UUID PRIMARY KEY,
+    object_key VARCHAR(255) UNIQUE NOT NULL,
+    expires_at BIGINT NOT NULL,  -- When the upload policy expires
+    created_at BIGINT NOT NULL DEFAULT now_millis()
+);
+
+-- Expired uploads, oldest first, for the sweeper
+CREATE INDEX idx_pending_uploads_expires_at ON pending_uploads(expires_at);
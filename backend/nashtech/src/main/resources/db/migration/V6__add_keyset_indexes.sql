@@ -0,0 +1,12 @@
+-- =========================
+-- Keyset pagination indexes
+-- =========================
+
+-- Seek products of a brand by (brand_id, id)
+CREATE INDEX idx_product_brand_id ON products(brand_id, id);
+
+-- Seek products of a category by (category_id, product_id)
+CREATE INDEX idx_product_category_category ON product_category(category_id, product_id);
+
+-- Seek search results by (name, id)
+CREATE INDEX idx_product_name_id ON products(name, id);
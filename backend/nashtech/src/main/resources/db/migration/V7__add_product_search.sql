@@ -0,0 +1,55 @@
+-- =========================
+-- Full-text product search
+-- =========================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE products ADD COLUMN search_vector tsvector;
+
+-- Weighted document: name (A), brand (B), type (C), description (D)
+CREATE OR REPLACE FUNCTION product_search_vector(
+    p_name TEXT,
+    p_brand_id INTEGER,
+    p_type TEXT,
+    p_description TEXT
+) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce((SELECT b.name FROM brands b WHERE b.id = p_brand_id), '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(p_type, '')), 'C')
+        || setweight(to_tsvector('english', coalesce(p_description, '')), 'D');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION products_search_vector_trigger() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := product_search_vector(NEW.name, NEW.brand_id, NEW.type, NEW.description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_search_vector
+    BEFORE INSERT OR UPDATE OF name, brand_id, type, description ON products
+    FOR EACH ROW EXECUTE FUNCTION products_search_vector_trigger();
+
+-- Keep documents in sync when a brand is renamed
+CREATE OR REPLACE FUNCTION brands_search_vector_trigger() RETURNS trigger AS $$
+BEGIN
+    UPDATE products
+    SET search_vector = product_search_vector(name, brand_id, type, description)
+    WHERE brand_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_brands_search_vector
+    AFTER UPDATE OF name ON brands
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION brands_search_vector_trigger();
+
+UPDATE products
+SET search_vector = product_search_vector(name, brand_id, type, description);
+
+-- Ranked full-text lookup
+CREATE INDEX idx_product_search_vector ON products USING GIN (search_vector);
+
+-- Substring and fuzzy lookup by name (ILIKE '%term%', similarity)
+CREATE INDEX idx_product_name_trgm ON products USING GIN (name gin_trgm_ops);
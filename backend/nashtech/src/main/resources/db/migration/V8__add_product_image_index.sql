@@ -0,0 +1,6 @@
+-- =========================
+-- Product image lookup
+-- =========================
+
+-- Image links of a product in upload order (detail pages, listings, export)
+CREATE INDEX idx_product_image_product_uuid ON product_image(product_uuid, id);
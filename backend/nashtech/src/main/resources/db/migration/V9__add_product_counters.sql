@@ -0,0 +1,158 @@
+-- =========================
+-- Product counters per brand and category
+-- =========================
+
+-- Live (not soft-deleted) products per brand and per category. Kept exact by
+-- the triggers below; ProductCounters reconciles them on a schedule.
+CREATE TABLE brand_product_counts (
+    brand_id BIGINT PRIMARY KEY REFERENCES brands(id) ON DELETE CASCADE,
+    product_count BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE category_product_counts (
+    category_id BIGINT PRIMARY KEY REFERENCES categories(id) ON DELETE CASCADE,
+    product_count BIGINT NOT NULL DEFAULT 0
+);
+
+-- Inserted products: one upsert per brand and statement
+CREATE OR REPLACE FUNCTION products_counts_insert_trigger() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO brand_product_counts (brand_id, product_count)
+    SELECT brand_id, COUNT(*)
+    FROM new_rows
+    WHERE brand_id IS NOT NULL AND is_deleted IS NOT TRUE
+    GROUP BY brand_id
+    ON CONFLICT (brand_id) DO UPDATE
+    SET product_count = brand_product_counts.product_count + EXCLUDED.product_count;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_counts_insert
+    AFTER INSERT ON products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION products_counts_insert_trigger();
+
+-- Updated products: brand moves and soft delete / restore
+CREATE OR REPLACE FUNCTION products_counts_update_trigger() RETURNS trigger AS $$
+BEGIN
+    WITH changes AS (
+        SELECT o.brand_id AS old_brand, o.is_deleted IS NOT TRUE AS old_live,
+            n.brand_id AS new_brand, n.is_deleted IS NOT TRUE AS new_live
+        FROM old_rows o
+        INNER JOIN new_rows n ON n.id = o.id
+        WHERE o.brand_id IS DISTINCT FROM n.brand_id
+        OR (o.is_deleted IS NOT TRUE) <> (n.is_deleted IS NOT TRUE)
+    ), deltas AS (
+        SELECT old_brand AS brand_id, -1 AS delta FROM changes WHERE old_live AND old_brand IS NOT NULL
+        UNION ALL
+        SELECT new_brand, 1 FROM changes WHERE new_live AND new_brand IS NOT NULL
+    )
+    INSERT INTO brand_product_counts (brand_id, product_count)
+    SELECT brand_id, SUM(delta)
+    FROM deltas
+    GROUP BY brand_id
+    HAVING SUM(delta) <> 0
+    ON CONFLICT (brand_id) DO UPDATE
+    SET product_count = brand_product_counts.product_count + EXCLUDED.product_count;
+
+    WITH flipped AS (
+        SELECT n.id, CASE WHEN n.is_deleted IS TRUE THEN -1 ELSE 1 END AS delta
+        FROM old_rows o
+        INNER JOIN new_rows n ON n.id = o.id
+        WHERE (o.is_deleted IS NOT TRUE) <> (n.is_deleted IS NOT TRUE)
+    )
+    INSERT INTO category_product_counts (category_id, product_count)
+    SELECT pc.category_id, SUM(f.delta)
+    FROM flipped f
+    INNER JOIN product_category pc ON pc.product_id = f.id
+    GROUP BY pc.category_id
+    HAVING SUM(f.delta) <> 0
+    ON CONFLICT (category_id) DO UPDATE
+    SET product_count = category_product_counts.product_count + EXCLUDED.product_count;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_counts_update
+    AFTER UPDATE ON products
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION products_counts_update_trigger();
+
+-- Hard-deleted products: runs before the category links cascade away
+CREATE OR REPLACE FUNCTION products_counts_delete_trigger() RETURNS trigger AS $$
+BEGIN
+    IF OLD.is_deleted IS NOT TRUE THEN
+        UPDATE brand_product_counts
+        SET product_count = product_count - 1
+        WHERE brand_id = OLD.brand_id;
+
+        UPDATE category_product_counts c
+        SET product_count = c.product_count - 1
+        FROM product_category pc
+        WHERE pc.product_id = OLD.id AND c.category_id = pc.category_id;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_counts_delete
+    BEFORE DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION products_counts_delete_trigger();
+
+-- Category links of live products
+CREATE OR REPLACE FUNCTION product_category_counts_insert_trigger() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO category_product_counts (category_id, product_count)
+    SELECT nr.category_id, COUNT(*)
+    FROM new_rows nr
+    INNER JOIN products p ON p.id = nr.product_id
+    WHERE p.is_deleted IS NOT TRUE
+    GROUP BY nr.category_id
+    ON CONFLICT (category_id) DO UPDATE
+    SET product_count = category_product_counts.product_count + EXCLUDED.product_count;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_product_category_counts_insert
+    AFTER INSERT ON product_category
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_category_counts_insert_trigger();
+
+-- Links removed by a product delete are already accounted for above, since
+-- the product row is gone by the time this runs
+CREATE OR REPLACE FUNCTION product_category_counts_delete_trigger() RETURNS trigger AS $$
+BEGIN
+    UPDATE category_product_counts c
+    SET product_count = c.product_count - d.removed
+    FROM (
+        SELECT orow.category_id, COUNT(*) AS removed
+        FROM old_rows orow
+        INNER JOIN products p ON p.id = orow.product_id
+        WHERE p.is_deleted IS NOT TRUE
+        GROUP BY orow.category_id
+    ) d
+    WHERE c.category_id = d.category_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_product_category_counts_delete
+    AFTER DELETE ON product_category
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_category_counts_delete_trigger();
+
+-- Backfill
+INSERT INTO brand_product_counts (brand_id, product_count)
+SELECT b.id, COUNT(p.id)
+FROM brands b
+LEFT JOIN products p ON p.brand_id = b.id AND p.is_deleted IS NOT TRUE
+GROUP BY b.id;
+
+INSERT INTO category_product_counts (category_id, product_count)
+SELECT c.id, COUNT(p.id)
+FROM categories c
+LEFT JOIN product_category pc ON pc.category_id = c.id
+LEFT JOIN products p ON p.id = pc.product_id AND p.is_deleted IS NOT TRUE
+GROUP BY c.id;
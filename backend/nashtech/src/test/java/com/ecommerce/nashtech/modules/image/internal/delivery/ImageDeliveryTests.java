@@ -0,0 +1,139 @@
+package com.ecommerce.nashtech.modules.image.internal.delivery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.minio.MinioClient;
+import reactor.test.StepVerifier;
+
+class ImageDeliveryTests {
+	private static final String CONTENT = "0123456789";
+	private static final String ETAG = "abc";
+
+	private final ImageDelivery delivery = new ImageDelivery(mock(MinioClient.class), "images", Duration.ofDays(365));
+	private ImageContent.Cached content;
+
+	@BeforeEach
+	void setUp(@TempDir Path directory) throws IOException {
+		var file = Files.writeString(directory.resolve("image"), CONTENT, StandardCharsets.US_ASCII);
+		content = new ImageContent.Cached(file, CONTENT.length());
+	}
+
+	@Test
+	void sendsTheWholeImmutableImage() {
+		var exchange = write(MockServerHttpRequest.get("/images/1"), true);
+
+		var response = exchange.getResponse();
+		var headers = response.getHeaders();
+		assertWhole(response);
+		assertThat(headers.getContentLength()).isEqualTo(CONTENT.length());
+		assertThat(headers.getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+		assertThat(headers.getETag()).isEqualTo("\"abc\"");
+		assertThat(headers.getCacheControl()).contains("immutable", "max-age=31536000");
+	}
+
+	@Test
+	void asksMutableContentToBeRevalidated() {
+		var exchange = write(MockServerHttpRequest.get("/images/key"), false);
+
+		assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo("no-cache");
+	}
+
+	@Test
+	void answersAMatchingIfNoneMatchWithNotModified() {
+		var exchange = write(MockServerHttpRequest.get("/images/1").ifNoneMatch("\"abc\""), true);
+
+		var response = exchange.getResponse();
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(response.getBodyAsString().block()).isEmpty();
+	}
+
+	@Test
+	void sendsASingleRange() {
+		var exchange = write(MockServerHttpRequest.get("/images/1").header(HttpHeaders.RANGE, "bytes=2-5"), true);
+
+		var response = exchange.getResponse();
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+		assertThat(response.getHeaders().getContentLength()).isEqualTo(4);
+		assertThat(response.getBodyAsString().block()).isEqualTo("2345");
+	}
+
+	@Test
+	void sendsASuffixRange() {
+		var exchange = write(MockServerHttpRequest.get("/images/1").header(HttpHeaders.RANGE, "bytes=-3"), true);
+
+		var response = exchange.getResponse();
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+		assertThat(response.getBodyAsString().block()).isEqualTo("789");
+	}
+
+	@Test
+	void answersAnUnsatisfiableRangeWith416() {
+		var exchange = write(MockServerHttpRequest.get("/images/1").header(HttpHeaders.RANGE, "bytes=20-30"), true);
+
+		var response = exchange.getResponse();
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+	}
+
+	@Test
+	void answersAMalformedRangeWith416() {
+		var exchange = write(MockServerHttpRequest.get("/images/1").header(HttpHeaders.RANGE, "items=0-1"), true);
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+	}
+
+	@Test
+	void sendsTheWholeImageForSeveralRanges() {
+		var exchange = write(MockServerHttpRequest.get("/images/1").header(HttpHeaders.RANGE, "bytes=0-1,4-5"), true);
+
+		assertWhole(exchange.getResponse());
+	}
+
+	@Test
+	void sendsTheWholeImageWhenIfRangeNoLongerMatches() {
+		var exchange = write(MockServerHttpRequest.get("/images/1")
+				.header(HttpHeaders.RANGE, "bytes=2-5")
+				.header(HttpHeaders.IF_RANGE, "\"old\""), true);
+
+		assertWhole(exchange.getResponse());
+	}
+
+	@Test
+	void honoursAMatchingIfRange() {
+		var exchange = write(MockServerHttpRequest.get("/images/1")
+				.header(HttpHeaders.RANGE, "bytes=2-5")
+				.header(HttpHeaders.IF_RANGE, "\"abc\""), true);
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+	}
+
+	private static void assertWhole(MockServerHttpResponse response) {
+		// No status set means 200
+		assertThat(response.getStatusCode()).isIn(null, HttpStatus.OK);
+		assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_RANGE)).isFalse();
+		assertThat(response.getBodyAsString().block()).isEqualTo(CONTENT);
+	}
+
+	private MockServerWebExchange write(MockServerHttpRequest.BaseBuilder<?> request, boolean immutable) {
+		var exchange = MockServerWebExchange.from(request);
+		StepVerifier.create(delivery.write(exchange, content, "image/png", ETAG, immutable)).verifyComplete();
+		return exchange;
+	}
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.nashtech.modules.image.internal.probe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.nashtech.modules.image.internal.probe.ImageProbe.ImageHeader;
+
+class ImageProbeTests {
+
+	@Test
+	void readsEncodedImages() throws IOException {
+		assertProbes(encode("png", 640, 480), new ImageHeader("image/png", 640, 480));
+		assertProbes(encode("jpeg", 320, 200), new ImageHeader("image/jpeg", 320, 200));
+		assertProbes(encode("gif", 17, 9), new ImageHeader("image/gif", 17, 9));
+		assertProbes(encode("bmp", 33, 21), new ImageHeader("image/bmp", 33, 21));
+	}
+
+	@Test
+	void readsOnlyTheHead() throws IOException {
+		var png = encode("png", 1200, 800);
+
+		assertThat(ImageProbe.probe(png, 24).unwrap()).isEqualTo(new ImageHeader("image/png", 1200, 800));
+	}
+
+	@Test
+	void readsLosslessWebp() {
+		var head = webp("VP8L");
+		head[20] = 0x2F;
+		// 14-bit width and height minus one, packed little endian
+		var bits = (1999 & 0x3FFF) | ((999 & 0x3FFF) << 14);
+		putLE(head, 21, bits, 4);
+
+		assertProbes(head, new ImageHeader("image/webp", 2000, 1000));
+	}
+
+	@Test
+	void readsExtendedWebp() {
+		var head = webp("VP8X");
+		putLE(head, 24, 4095, 3);
+		putLE(head, 27, 2047, 3);
+
+		assertProbes(head, new ImageHeader("image/webp", 4096, 2048));
+	}
+
+	@Test
+	void rejectsTruncatedHeaders() throws IOException {
+		var png = encode("png", 64, 64);
+		var jpeg = encode("jpeg", 64, 64);
+
+		assertThat(ImageProbe.probe(png, 20).isNone()).isTrue();
+		assertThat(ImageProbe.probe(jpeg, 4).isNone()).isTrue();
+		assertThat(ImageProbe.probe(webp("VP8X"), 20).isNone()).isTrue();
+	}
+
+	@Test
+	void rejectsOtherContent() {
+		var text = "<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes(StandardCharsets.US_ASCII);
+
+		assertThat(ImageProbe.probe(text, text.length).isNone()).isTrue();
+		assertThat(ImageProbe.probe(new byte[0], 0).isNone()).isTrue();
+	}
+
+	@Test
+	void rejectsZeroDimensions() {
+		var gif = Arrays.copyOf("GIF89a".getBytes(StandardCharsets.US_ASCII), 13);
+
+		assertThat(ImageProbe.probe(gif, gif.length).isNone()).isTrue();
+	}
+
+	private static void assertProbes(byte[] bytes, ImageHeader expected) {
+		assertThat(ImageProbe.probe(bytes, bytes.length).unwrap()).isEqualTo(expected);
+	}
+
+	private static byte[] encode(String format, int width, int height) throws IOException {
+		var out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+		return out.toByteArray();
+	}
+
+	private static byte[] webp(String chunk) {
+		var head = new byte[30];
+		var ascii = StandardCharsets.US_ASCII;
+		System.arraycopy("RIFF".getBytes(ascii), 0, head, 0, 4);
+		System.arraycopy("WEBP".getBytes(ascii), 0, head, 8, 4);
+		System.arraycopy(chunk.getBytes(ascii), 0, head, 12, 4);
+		return head;
+	}
+
+	private static void putLE(byte[] bytes, int offset, int value, int length) {
+		for (int i = 0; i < length; i++) {
+			bytes[offset + i] = (byte) (value >> (8 * i));
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.nashtech.modules.image.internal.variant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.ecommerce.nashtech.modules.image.internal.repository.ImageRepository;
+import com.ecommerce.nashtech.modules.image.internal.repository.ImageVariantRepository;
+import com.ecommerce.nashtech.modules.image.internal.variant.ImageVariants.Size;
+
+import io.minio.MinioClient;
+import reactor.test.StepVerifier;
+
+class ImageVariantsTests {
+	private final ImageRepository imageRepo = mock(ImageRepository.class);
+	private final ImageVariants variants = new ImageVariants(
+			imageRepo,
+			mock(ImageVariantRepository.class),
+			mock(R2dbcEntityTemplate.class),
+			mock(MinioClient.class),
+			"images",
+			new Integer[] { 640, 160, 1600, 320 },
+			0.85f,
+			40_000_000L,
+			2048,
+			1,
+			1,
+			100);
+
+	@AfterEach
+	void tearDown() {
+		variants.destroy();
+	}
+
+	@Test
+	void snapsUpToTheNextConfiguredWidth() {
+		assertThat(variants.snap(1)).isEqualTo(160);
+		assertThat(variants.snap(160)).isEqualTo(160);
+		assertThat(variants.snap(161)).isEqualTo(320);
+		assertThat(variants.snap(641)).isEqualTo(1600);
+	}
+
+	@Test
+	void capsAtTheLargestConfiguredWidth() {
+		assertThat(variants.snap(5000)).isEqualTo(1600);
+	}
+
+	@Test
+	void fitsKeepingTheAspectRatio() {
+		assertThat(ImageVariants.fit(4000, 3000, 640, 2048)).isEqualTo(new Size(640, 480));
+		assertThat(ImageVariants.fit(3000, 4000, 640, 2048)).isEqualTo(new Size(640, 853));
+	}
+
+	@Test
+	void fitsTallImagesWithinTheMaxHeight() {
+		assertThat(ImageVariants.fit(1000, 10000, 2048, 2048)).isEqualTo(new Size(205, 2048));
+	}
+
+	@Test
+	void neverScalesUp() {
+		assertThat(ImageVariants.fit(100, 50, 640, 2048)).isEqualTo(new Size(100, 50));
+	}
+
+	@Test
+	void neverScalesToNothing() {
+		assertThat(ImageVariants.fit(10000, 1, 160, 2048)).isEqualTo(new Size(160, 1));
+	}
+
+	@Test
+	void rejectsInvalidRequestsBeforeLookingUpTheImage() {
+		StepVerifier.create(variants.resolve(UUID.randomUUID(), 0, null))
+				.expectError(ServerWebInputException.class)
+				.verify();
+		StepVerifier.create(variants.resolve(UUID.randomUUID(), -160, null))
+				.expectError(ServerWebInputException.class)
+				.verify();
+		StepVerifier.create(variants.resolve(UUID.randomUUID(), null, "tiff"))
+				.expectError(ServerWebInputException.class)
+				.verify();
+		verifyNoInteractions(imageRepo);
+	}
+}
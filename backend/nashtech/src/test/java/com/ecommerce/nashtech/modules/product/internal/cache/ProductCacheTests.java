@@ -0,0 +1,69 @@
+package com.ecommerce.nashtech.modules.product.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.nashtech.modules.product.dto.FullProductDto;
+import com.ecommerce.nashtech.shared.enums.ProductFinder;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class ProductCacheTests {
+	private static final UUID FIRST = UUID.randomUUID();
+	private static final UUID SECOND = UUID.randomUUID();
+
+	private final ProductCache cache = new ProductCache(100, Duration.ofMinutes(1));
+
+	@Test
+	void invalidationDropsOnlyThatProductsLoad() {
+		var first = Sinks.<FullProductDto>one();
+		var second = Sinks.<FullProductDto>one();
+		var firstLoad = cache.get(new ProductFinder.ByUuid(FIRST), first::asMono).toFuture();
+		var secondLoad = cache.get(new ProductFinder.ByUuid(SECOND), second::asMono).toFuture();
+
+		cache.invalidate(1L, FIRST);
+		first.tryEmitValue(product(FIRST));
+		second.tryEmitValue(product(SECOND));
+
+		assertThat(firstLoad).isCompleted();
+		assertThat(secondLoad).isCompleted();
+		assertThat(cache.peek(new ProductFinder.ByUuid(FIRST)).isNone()).isTrue();
+		assertThat(cache.peek(new ProductFinder.ByUuid(SECOND)).isSome()).isTrue();
+	}
+
+	@Test
+	void invalidateDropsBothFinders() {
+		var byId = new ProductFinder.ById(1L);
+		var byUuid = new ProductFinder.ByUuid(FIRST);
+		StepVerifier.create(cache.get(byId, () -> Mono.just(product(FIRST))))
+				.expectNextCount(1)
+				.verifyComplete();
+		StepVerifier.create(cache.get(byUuid, () -> Mono.just(product(FIRST))))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		cache.invalidate(1L, FIRST);
+
+		assertThat(cache.peek(byId).isNone()).isTrue();
+		assertThat(cache.peek(byUuid).isNone()).isTrue();
+	}
+
+	@Test
+	void peekDoesNotCountAsAHitOrMiss() {
+		cache.peek(new ProductFinder.ById(1L));
+
+		var stats = cache.stats();
+		assertThat(stats.hitCount()).isZero();
+		assertThat(stats.missCount()).isZero();
+	}
+
+	private static FullProductDto product(UUID uuid) {
+		return FullProductDto.builder().uuid(uuid).build();
+	}
+}
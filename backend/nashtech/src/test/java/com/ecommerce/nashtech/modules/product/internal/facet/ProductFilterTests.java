@@ -0,0 +1,115 @@
+package com.ecommerce.nashtech.modules.product.internal.facet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import com.ecommerce.nashtech.modules.product.error.ProductError;
+
+class ProductFilterTests {
+
+	@Test
+	void emptyQueryMatchesEverything() {
+		var filter = ProductFilter.parse(params()).unwrap();
+
+		assertThat(filter.specs()).isEmpty();
+		assertThat(filter.minPrice().isNone()).isTrue();
+		assertThat(filter.maxPrice().isNone()).isTrue();
+		assertThat(filter.brandIds()).isEmpty();
+		assertThat(filter.categoryId().isNone()).isTrue();
+	}
+
+	@Test
+	void parsesSpecsAcrossRepeatedParameters() {
+		var params = params("spec.color", "red, blue");
+		params.add("spec.color", "blue,green");
+		params.add("spec.ram", "16GB");
+
+		var specs = ProductFilter.parse(params).unwrap().specs();
+
+		assertThat(specs).containsOnlyKeys("color", "ram");
+		assertThat(specs.get("color")).containsExactly("red", "blue", "green");
+		assertThat(specs.get("ram")).containsExactly("16GB");
+	}
+
+	@Test
+	void parsesPriceRangesWithOpenEnds() {
+		var closed = ProductFilter.parse(params("price", "100..500.50")).unwrap();
+		assertThat(closed.minPrice().unwrap()).isEqualByComparingTo("100");
+		assertThat(closed.maxPrice().unwrap()).isEqualByComparingTo(new BigDecimal("500.50"));
+
+		var from = ProductFilter.parse(params("price", "100..")).unwrap();
+		assertThat(from.minPrice().unwrap()).isEqualByComparingTo("100");
+		assertThat(from.maxPrice().isNone()).isTrue();
+
+		var upTo = ProductFilter.parse(params("price", "..500")).unwrap();
+		assertThat(upTo.minPrice().isNone()).isTrue();
+		assertThat(upTo.maxPrice().unwrap()).isEqualByComparingTo("500");
+	}
+
+	@Test
+	void parsesBrandsAndCategory() {
+		var params = params("brand", "1,2");
+		params.add("brand", "2,3");
+		params.add("category", " 7 ");
+
+		var filter = ProductFilter.parse(params).unwrap();
+
+		assertThat(filter.brandIds()).isEqualTo(List.of(1L, 2L, 3L));
+		assertThat(filter.categoryId().unwrap()).isEqualTo(7L);
+	}
+
+	@Test
+	void ignoresUnrelatedParameters() {
+		var filter = ProductFilter.parse(params("size", "20")).unwrap();
+
+		assertThat(filter.specs()).isEmpty();
+	}
+
+	@Test
+	void rejectsMalformedValues() {
+		assertInvalid(params("price", "100"));
+		assertInvalid(params("price", "1..2..3"));
+		assertInvalid(params("price", "cheap.."));
+		assertInvalid(params("brand", "1,acme"));
+		assertInvalid(params("category", "phones"));
+		assertInvalid(params("spec.", "red"));
+		assertInvalid(params("spec.co lor", "red"));
+		assertInvalid(params("spec.color", " , "));
+	}
+
+	@Test
+	void rejectsTooManyValuesOrKeys() {
+		var values = new StringBuilder();
+		for (int i = 0; i <= 32; i++) {
+			values.append(i).append(',');
+		}
+		assertInvalid(params("spec.color", values.toString()));
+
+		var keys = params();
+		for (int i = 0; i <= 16; i++) {
+			keys.add("spec.key" + i, "value");
+		}
+		assertInvalid(keys);
+	}
+
+	private static void assertInvalid(MultiValueMap<String, String> params) {
+		var result = ProductFilter.parse(params);
+
+		assertThat(result.isErr()).as("%s", params).isTrue();
+		assertThat(result.unwrapErr()).isInstanceOf(ProductError.InvalidFilterError.class);
+	}
+
+	private static MultiValueMap<String, String> params(String... pairs) {
+		var params = new LinkedMultiValueMap<String, String>();
+		for (int i = 0; i < pairs.length; i += 2) {
+			params.add(pairs[i], pairs[i + 1]);
+		}
+		return params;
+	}
+}
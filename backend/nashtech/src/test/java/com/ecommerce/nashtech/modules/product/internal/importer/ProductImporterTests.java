@@ -0,0 +1,99 @@
+package com.ecommerce.nashtech.modules.product.internal.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.nashtech.modules.product.dto.ImportProductDto;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+class ProductImporterTests {
+	private final ProductImporter.Lookup brands = lookup("Acme", 1L);
+	private final ProductImporter.Lookup categories = lookup("Phones", 10L);
+
+	@Test
+	void acceptsAValidRow() {
+		var uuid = UUID.randomUUID();
+		var specs = JsonNodeFactory.instance.objectNode().put("ram", "16GB");
+		var dto = new ImportProductDto(uuid, "  Phone  ", " acme ", List.of("PHONES"), "desc",
+				new BigDecimal("199.99"), 5, "phone", specs);
+
+		var row = ProductImporter.validate(dto, brands, categories).unwrap();
+
+		assertThat(row.uuid()).isEqualTo(uuid);
+		assertThat(row.name()).isEqualTo("Phone");
+		assertThat(row.brandId()).isEqualTo(1L);
+		assertThat(row.categoryIds()).containsExactly(10L);
+		assertThat(row.specifications()).isEqualTo("{\"ram\":\"16GB\"}");
+	}
+
+	@Test
+	void generatesAUuidAndKeepsMissingOptionalFields() {
+		var row = ProductImporter.validate(product("Phone", "1"), brands, categories).unwrap();
+
+		assertThat(row.uuid()).isNotNull();
+		assertThat(row.brandId()).isNull();
+		// null leaves the product's categories untouched
+		assertThat(row.categoryIds()).isNull();
+		assertThat(row.specifications()).isNull();
+	}
+
+	@Test
+	void acceptsTheLargestNumeric20Scale2() {
+		assertValid(product("Phone", "999999999999999999.99"));
+		assertValid(product("Phone", "0"));
+		assertValid(product("Phone", "1.5"));
+	}
+
+	@Test
+	void rejectsPricesOutsideNumeric20Scale2() {
+		assertError(product("Phone", "1000000000000000000"), "price does not fit NUMERIC(20, 2)");
+		assertError(product("Phone", "1.001"), "price does not fit NUMERIC(20, 2)");
+		assertError(product("Phone", "-1"), "price must be zero or positive");
+		assertError(product("Phone", null), "price must be zero or positive");
+	}
+
+	@Test
+	void rejectsInvalidFields() {
+		assertError(product(null, "1"), "name is required");
+		assertError(product(" ", "1"), "name is required");
+		assertError(product("x".repeat(256), "1"), "name is longer than 255 characters");
+		assertError(new ImportProductDto(null, "Phone", null, null, null, BigDecimal.ONE, -1, null, null),
+				"stockQuantity must be zero or positive");
+		assertError(new ImportProductDto(null, "Phone", null, null, null, BigDecimal.ONE, 1, "x".repeat(51), null),
+				"type is longer than 50 characters");
+		assertError(new ImportProductDto(null, "Phone", null, null, null, BigDecimal.ONE, 1, null,
+				JsonNodeFactory.instance.arrayNode()), "specifications must be a JSON object");
+	}
+
+	@Test
+	void rejectsUnknownBrandsAndCategories() {
+		assertError(new ImportProductDto(null, "Phone", "Globex", null, null, BigDecimal.ONE, 1, null, null),
+				"unknown brand: Globex");
+		assertError(new ImportProductDto(null, "Phone", null, List.of("Phones", "Tablets"), null, BigDecimal.ONE, 1,
+				null, null), "unknown category: Tablets");
+	}
+
+	private void assertValid(ImportProductDto dto) {
+		assertThat(ProductImporter.validate(dto, brands, categories).isOk()).as("%s", dto.price()).isTrue();
+	}
+
+	private void assertError(ImportProductDto dto, String error) {
+		assertThat(ProductImporter.validate(dto, brands, categories).unwrapErr()).isEqualTo(error);
+	}
+
+	private static ImportProductDto product(String name, String price) {
+		return new ImportProductDto(null, name, null, null, null, price == null ? null : new BigDecimal(price), 1,
+				null, null);
+	}
+
+	private static ProductImporter.Lookup lookup(String name, long id) {
+		var lookup = new ProductImporter.Lookup();
+		lookup.ids.put(ProductImporter.Lookup.key(name), id);
+		return lookup;
+	}
+}
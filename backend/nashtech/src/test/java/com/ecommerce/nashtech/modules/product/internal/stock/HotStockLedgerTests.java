@@ -0,0 +1,104 @@
+package com.ecommerce.nashtech.modules.product.internal.stock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.ecommerce.nashtech.modules.product.internal.stock.StockChanges.ProductRef;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class HotStockLedgerTests {
+	private static final long HOT = 1L;
+	private static final ProductRef PRODUCT = new ProductRef(HOT, UUID.randomUUID());
+
+	private final StockReservationStore store = mock(StockReservationStore.class);
+	private final StockChanges stockChanges = mock(StockChanges.class);
+	private final TransactionalOperator txOperator = mock(TransactionalOperator.class);
+	private HotStockLedger ledger;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(txOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(store.reserveLocked(anyLong(), anyList(), anyList())).thenReturn(Mono.just(PRODUCT));
+		ledger = new HotStockLedger(store, stockChanges, txOperator, Set.of(HOT), 4, 10);
+	}
+
+	@Test
+	void onlyListedProductsAreHot() {
+		assertThat(ledger.isHot(HOT)).isTrue();
+		assertThat(ledger.isHot(2L)).isFalse();
+	}
+
+	@Test
+	void grantsWhileStockLastsWithOneDecrement() {
+		when(store.lockAvailable(HOT)).thenReturn(Mono.just(5));
+		var first = UUID.randomUUID();
+		var second = UUID.randomUUID();
+		var third = UUID.randomUUID();
+		var granted = ledger.reserve(first, HOT, 3);
+		// Does not fit in the 2 left, but a smaller later demand does
+		var denied = ledger.reserve(second, HOT, 3);
+		var fits = ledger.reserve(third, HOT, 2);
+
+		StepVerifier.create(ledger.flush()).verifyComplete();
+
+		StepVerifier.create(granted).expectNext(true).verifyComplete();
+		StepVerifier.create(denied).expectNext(false).verifyComplete();
+		StepVerifier.create(fits).expectNext(true).verifyComplete();
+		verify(store).reserveLocked(HOT, List.of(first, third), List.of(3, 2));
+		verify(stockChanges).publish(List.of(PRODUCT));
+	}
+
+	@Test
+	void deniesEverythingWithoutStock() {
+		when(store.lockAvailable(HOT)).thenReturn(Mono.empty());
+		var demand = ledger.reserve(UUID.randomUUID(), HOT, 1);
+
+		StepVerifier.create(ledger.flush()).verifyComplete();
+
+		StepVerifier.create(demand).expectNext(false).verifyComplete();
+		verify(store, never()).reserveLocked(anyLong(), anyList(), anyList());
+		verify(stockChanges, never()).publish(anyList());
+	}
+
+	@Test
+	void failsPendingDemandsWhenTheFlushFails() {
+		var failure = new IllegalStateException("connection lost");
+		when(store.lockAvailable(HOT)).thenReturn(Mono.just(10));
+		when(store.reserveLocked(anyLong(), anyList(), anyList())).thenReturn(Mono.error(failure));
+		var demand = ledger.reserve(UUID.randomUUID(), HOT, 1);
+
+		// The flush loop keeps running
+		StepVerifier.create(ledger.flush()).verifyComplete();
+
+		StepVerifier.create(demand).expectErrorMatches(failure::equals).verify();
+		verify(stockChanges, never()).publish(anyList());
+	}
+
+	@Test
+	void flushesOnlyPendingDemandsOnce() {
+		when(store.lockAvailable(HOT)).thenReturn(Mono.just(10));
+		ledger.reserve(UUID.randomUUID(), HOT, 1);
+
+		StepVerifier.create(ledger.flush()).verifyComplete();
+		StepVerifier.create(ledger.flush()).verifyComplete();
+
+		verify(store).lockAvailable(HOT);
+	}
+}
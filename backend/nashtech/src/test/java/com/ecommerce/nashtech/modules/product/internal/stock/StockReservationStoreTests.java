@@ -0,0 +1,159 @@
+package com.ecommerce.nashtech.modules.product.internal.stock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+
+import com.ecommerce.nashtech.modules.product.error.ProductError;
+import com.ecommerce.nashtech.modules.product.internal.stock.StockChanges.ProductRef;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * The guarded decrements themselves run in Postgres; these tests cover how
+ * the store reads their results, so a statement that reserved less than was
+ * asked for is never reported as a success.
+ */
+class StockReservationStoreTests {
+	private static final UUID RESERVATION = UUID.randomUUID();
+	private static final ProductRef FIRST = new ProductRef(1L, UUID.randomUUID());
+	private static final ProductRef SECOND = new ProductRef(2L, UUID.randomUUID());
+
+	private final R2dbcEntityTemplate template = mock(R2dbcEntityTemplate.class);
+	private final DatabaseClient client = mock(DatabaseClient.class);
+	private final DatabaseClient.GenericExecuteSpec statement = mock(DatabaseClient.GenericExecuteSpec.class,
+			RETURNS_SELF);
+	private final StockChanges stockChanges = mock(StockChanges.class);
+	private StockReservationStore store;
+
+	@BeforeEach
+	void setUp() {
+		when(template.getDatabaseClient()).thenReturn(client);
+		when(client.sql(anyString())).thenReturn(statement);
+		store = new StockReservationStore(template, stockChanges, Duration.ofMinutes(15), 500);
+	}
+
+	@Test
+	void reservesWhenEveryProductWasDecremented() {
+		returns(row(FIRST, Map.of()), row(SECOND, Map.of()));
+
+		StepVerifier.create(store.reserve(RESERVATION, quantities()))
+				.expectNext(List.of(FIRST, SECOND))
+				.verifyComplete();
+	}
+
+	@Test
+	void failsWithTheProductsThatLackStock() {
+		// The guarded decrement skipped product 2
+		returns(row(FIRST, Map.of()));
+
+		StepVerifier.create(store.reserve(RESERVATION, quantities()))
+				.expectErrorSatisfies(err -> assertThat(err)
+						.isInstanceOf(ProductError.InsufficientStockError.class)
+						.hasMessageContaining("[2]"))
+				.verify();
+	}
+
+	@Test
+	void reservesNothingWithoutTouchingTheDatabase() {
+		StepVerifier.create(store.reserve(RESERVATION, Map.of()))
+				.expectNext(List.of())
+				.verifyComplete();
+		verify(client, never()).sql(anyString());
+	}
+
+	@Test
+	void reservesLockedWhenEveryReservationWasRecorded() {
+		returns(row(FIRST, Map.of("inserted", 2L)));
+
+		StepVerifier.create(store.reserveLocked(1L, List.of(UUID.randomUUID(), UUID.randomUUID()), List.of(1, 2)))
+				.expectNext(FIRST)
+				.verifyComplete();
+	}
+
+	@Test
+	void failsLockedWhenTheDecrementWasRefused() {
+		returns();
+
+		StepVerifier.create(store.reserveLocked(1L, List.of(UUID.randomUUID()), List.of(5)))
+				.expectError(ProductError.InsufficientStockError.class)
+				.verify();
+	}
+
+	@Test
+	void failsLockedWhenSomeReservationsWereNotRecorded() {
+		returns(row(FIRST, Map.of("inserted", 1L)));
+
+		StepVerifier.create(store.reserveLocked(1L, List.of(UUID.randomUUID(), UUID.randomUUID()), List.of(1, 2)))
+				.expectError(ProductError.InsufficientStockError.class)
+				.verify();
+	}
+
+	@Test
+	void releasePublishesTheRestoredProducts() {
+		var row = mock(Row.class);
+		when(row.get("released", Long.class)).thenReturn(2L);
+		when(row.get("ids", Long[].class)).thenReturn(new Long[] { 1L, 2L });
+		when(row.get("uuids", UUID[].class)).thenReturn(new UUID[] { FIRST.uuid(), SECOND.uuid() });
+		returns(row);
+
+		StepVerifier.create(store.release(RESERVATION))
+				.expectNext(2L)
+				.verifyComplete();
+		verify(stockChanges).publish(List.of(FIRST, SECOND));
+	}
+
+	private static Map<Long, Integer> quantities() {
+		var quantities = new LinkedHashMap<Long, Integer>();
+		quantities.put(1L, 3);
+		quantities.put(2L, 4);
+		return quantities;
+	}
+
+	private static Row row(ProductRef product, Map<String, Long> columns) {
+		var row = mock(Row.class);
+		when(row.get("id", Long.class)).thenReturn(product.id());
+		when(row.get("uuid", UUID.class)).thenReturn(product.uuid());
+		columns.forEach((name, value) -> when(row.get(name, Long.class)).thenReturn(value));
+		return row;
+	}
+
+	/**
+	 * Makes the next statement return the rows, mapped with the store's own
+	 * mapping function.
+	 */
+	@SuppressWarnings("unchecked")
+	private void returns(Row... rows) {
+		when(statement.map(any(BiFunction.class))).thenAnswer(invocation -> {
+			BiFunction<Row, RowMetadata, Object> mapper = invocation.getArgument(0);
+			var mapped = Flux.fromArray(rows).map(row -> mapper.apply(row, mock(RowMetadata.class)));
+			var spec = mock(RowsFetchSpec.class);
+			when(spec.all()).thenReturn(mapped);
+			when(spec.one()).thenReturn(mapped.singleOrEmpty());
+			when(spec.first()).thenReturn(mapped.next());
+			return spec;
+		});
+	}
+}
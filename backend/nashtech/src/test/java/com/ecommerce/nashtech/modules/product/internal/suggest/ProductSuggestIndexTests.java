@@ -0,0 +1,34 @@
+package com.ecommerce.nashtech.modules.product.internal.suggest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.nashtech.modules.product.dto.ProductSuggestionDto;
+
+class ProductSuggestIndexTests {
+	private final ProductSuggestIndex index = new ProductSuggestIndex();
+
+	@Test
+	void renamedBrandIsOnlyFoundUnderItsNewName() {
+		index.putBrand(1L, "Samsung", 3);
+		index.putBrand(1L, "Samsung Electronics", 3);
+
+		assertThat(index.suggest("electro", 5)).extracting(ProductSuggestionDto::label)
+				.containsExactly("Samsung Electronics");
+		assertThat(index.suggest("samsung", 5)).hasSize(1);
+	}
+
+	@Test
+	void removedBrandIsNoLongerSuggested() {
+		index.putBrand(1L, "Samsung", 3);
+		// Cached under a short prefix before the removal
+		assertThat(index.suggest("sa", 5)).hasSize(1);
+
+		index.removeBrand(1L);
+
+		assertThat(index.suggest("sa", 5)).isEmpty();
+		assertThat(index.suggest("samsung", 5)).isEmpty();
+		assertThat(index.size()).isZero();
+	}
+}
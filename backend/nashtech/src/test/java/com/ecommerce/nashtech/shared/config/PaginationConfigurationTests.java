@@ -0,0 +1,97 @@
+package com.ecommerce.nashtech.shared.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.server.ServerWebInputException;
+
+import reactor.test.StepVerifier;
+
+class PaginationConfigurationTests {
+	private final PaginationConfiguration resolver = new PaginationConfiguration();
+
+	@SuppressWarnings("unused")
+	private static final class Handlers {
+		void unsorted(Pageable pageable) {
+		}
+
+		void sorted(@Sortable(value = { "price", "name" }) Pageable pageable) {
+		}
+
+		void large(@MaxPageSize(500) Pageable pageable) {
+		}
+	}
+
+	@Test
+	void defaultsToTheFirstPageOfTen() {
+		assertResolves("unsorted", "", PageRequest.of(0, 10));
+	}
+
+	@Test
+	void readsPageAndSize() {
+		assertResolves("unsorted", "page=3&size=25", PageRequest.of(3, 25));
+	}
+
+	@Test
+	void rejectsMalformedAndOutOfRangeValues() {
+		assertRejected("unsorted", "page=abc");
+		assertRejected("unsorted", "size=1.5");
+		assertRejected("unsorted", "page=99999999999");
+		assertRejected("unsorted", "page=-1");
+		assertRejected("unsorted", "size=0");
+		assertRejected("unsorted", "size=101");
+	}
+
+	@Test
+	void maxPageSizeRaisesTheLimit() {
+		assertResolves("large", "size=500", PageRequest.of(0, 500));
+		assertRejected("large", "size=501");
+	}
+
+	@Test
+	void sortsOnDeclaredPropertiesWithTheTieBreaker() {
+		assertResolves("sorted", "sort=price,desc",
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id"))));
+		assertResolves("sorted", "sort=name",
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "name").and(Sort.by(Sort.Direction.ASC, "id"))));
+	}
+
+	@Test
+	void rejectsUndeclaredSorts() {
+		assertRejected("unsorted", "sort=price");
+		assertRejected("sorted", "sort=stock");
+		assertRejected("sorted", "sort=price,sideways");
+		assertRejected("sorted", "sort=price,asc,extra");
+	}
+
+	private void assertResolves(String handler, String query, Pageable expected) {
+		StepVerifier.create(resolver.resolveArgument(parameter(handler), new BindingContext(), exchange(query)))
+				.assertNext(pageable -> assertThat(pageable).isEqualTo(expected))
+				.verifyComplete();
+	}
+
+	private void assertRejected(String handler, String query) {
+		StepVerifier.create(resolver.resolveArgument(parameter(handler), new BindingContext(), exchange(query)))
+				.expectError(ServerWebInputException.class)
+				.verify();
+	}
+
+	private static MethodParameter parameter(String handler) {
+		try {
+			return new MethodParameter(Handlers.class.getDeclaredMethod(handler, Pageable.class), 0);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private static MockServerWebExchange exchange(String query) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/products?" + query));
+	}
+}
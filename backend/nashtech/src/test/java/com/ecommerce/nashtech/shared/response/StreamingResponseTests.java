@@ -0,0 +1,50 @@
+package com.ecommerce.nashtech.shared.response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.nashtech.shared.types.Cursor;
+import com.ecommerce.nashtech.shared.types.CursorPage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+class StreamingResponseTests {
+
+	@Test
+	void writesItemsBeforeThePageIsRead() {
+		var slices = TestPublisher.<CursorPage<Integer>>create();
+
+		StepVerifier.create(StreamingResponse.of(slices.flux(), Mono.just(10L), 4, "/products"))
+				.then(() -> slices.next(slice(1, 2)))
+				.expectNext(new StreamingResponse.Item<>(1), new StreamingResponse.Item<>(2))
+				.then(() -> slices.next(slice(3, 4)).complete())
+				.expectNext(new StreamingResponse.Item<>(3), new StreamingResponse.Item<>(4))
+				.assertNext(trailer -> {
+					var end = (StreamingResponse.Trailer) trailer;
+					assertThat(end.nextCursor()).isEqualTo(Cursor.of(4L).encode());
+					assertThat(end.page().getTotalItems()).isEqualTo(10L);
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void endsWithoutACursorAfterAShortPage() {
+		var slices = Flux.just(slice(1, 2), slice(3));
+
+		StepVerifier.create(StreamingResponse.of(slices, Mono.just(3L), 4, "/products"))
+				.expectNextCount(3)
+				.assertNext(trailer -> assertThat(((StreamingResponse.Trailer) trailer).nextCursor()).isNull())
+				.verifyComplete();
+	}
+
+	private static CursorPage<Integer> slice(Integer... ids) {
+		var rows = List.of(ids);
+		return CursorPage.slice(rows, rows, id -> Cursor.of(id));
+	}
+}
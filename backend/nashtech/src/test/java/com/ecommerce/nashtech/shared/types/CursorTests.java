@@ -0,0 +1,59 @@
+package com.ecommerce.nashtech.shared.types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class CursorTests {
+
+	@Test
+	void roundTripsKeyAndId() {
+		var cursor = Cursor.of("1999.99", 42L);
+
+		var decoded = Cursor.decode(cursor.encode());
+
+		assertThat(decoded.isSome()).isTrue();
+		assertThat(decoded.unwrap()).isEqualTo(cursor);
+	}
+
+	@Test
+	void roundTripsKeysContainingTheSeparator() {
+		var cursor = Cursor.of("2024-01-01T10:00:00", 7L);
+
+		assertThat(Cursor.decode(cursor.encode()).unwrap()).isEqualTo(cursor);
+	}
+
+	@Test
+	void encodesUrlSafeWithoutPadding() {
+		var token = Cursor.of("??>>", 1L).encode();
+
+		assertThat(token).doesNotContain("+", "/", "=");
+	}
+
+	@Test
+	void blankTokenStartsAtTheFirstRow() {
+		assertThat(Cursor.decode(null).unwrap()).isEqualTo(Cursor.start());
+		assertThat(Cursor.decode("").unwrap()).isEqualTo(Cursor.start());
+		assertThat(Cursor.decode("  ").unwrap()).isEqualTo(Cursor.start());
+	}
+
+	@Test
+	void nullKeyIsEmpty() {
+		assertThat(Cursor.of(null, 3L)).isEqualTo(Cursor.of(3L));
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertThat(Cursor.decode("not base64!").isNone()).isTrue();
+		assertThat(Cursor.decode(encode("no-separator")).isNone()).isTrue();
+		assertThat(Cursor.decode(encode("key:not-a-number")).isNone()).isTrue();
+		assertThat(Cursor.decode(encode("key:-1")).isNone()).isTrue();
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}